@@ -0,0 +1,238 @@
+package com.franglen.oracle;
+
+import java.util.Arrays;
+
+import com.franglen.oracle.filter.DoubleFilter;
+import com.franglen.oracle.filter.Filter;
+import com.franglen.oracle.filter.IntFilter;
+import com.franglen.oracle.filter.LongFilter;
+import com.franglen.oracle.filter.ScoredFilter;
+import com.franglen.oracle.model.JavaRandomModel;
+import com.franglen.oracle.model.ModelRandom;
+import com.franglen.oracle.model.PrngModel;
+
+/**
+ * An immutable snapshot of the filters of a SeedFilter.
+ * 
+ * When the model is java.util.Random, the leading filters which test an exact
+ * int, long or double are compiled into operations on the primitive state.
+ * These are evaluated in one loop without calling the filters or a Random
+ * object. The filters that follow them are applied to a Random object which
+ * continues from the state that the operations reached.
+ * 
+ * @author matthew
+ */
+final class FilterChain {
+
+	private static final int NEXT_INT = 0;
+	private static final int NEXT_LONG = 1;
+	private static final int NEXT_DOUBLE = 2;
+
+	/**
+	 * The key of a chain which cannot be found by the first step.
+	 */
+	static final long UNKEYED = -1;
+
+	/**
+	 * Copied from DOUBLE_UNIT in java.util.Random
+	 */
+	private static final double DOUBLE_UNIT = 0x1.0p-53;
+
+	private final PrngModel model;
+	private final Filter[] filters;
+	private final int[] operations;
+	private final long[] operands;
+
+	FilterChain(PrngModel model) {
+		this(model, new Filter[0]);
+	}
+
+	private FilterChain(PrngModel model, Filter[] filters) {
+		this.model = model;
+		this.filters = filters;
+
+		int compiled = model instanceof JavaRandomModel ? compiledLength(filters) : 0;
+		operations = new int[compiled];
+		operands = new long[compiled];
+		for (int i = 0; i < compiled; i++) {
+			compile(i, filters[i]);
+		}
+	}
+
+	/**
+	 * Returns a chain which applies the filter after every filter in this one.
+	 */
+	FilterChain with(Filter filter) {
+		Filter[] extended = Arrays.copyOf(filters, filters.length + 1);
+		extended[filters.length] = filter;
+		return new FilterChain(model, extended);
+	}
+
+	int size() {
+		return filters.length;
+	}
+
+	boolean acceptsState(long state) {
+		return acceptsState(state, null);
+	}
+
+	/**
+	 * Accepts the internal state of the generator. The Random object is only
+	 * used for the filters which were not compiled, and is created if it is
+	 * null.
+	 */
+	boolean acceptsState(long state, ModelRandom random) {
+		long current = state;
+
+		for (int i = 0; i < operations.length; i++) {
+			long first = JavaRandomModel.next(current);
+			current = operations[i] == NEXT_INT ? first : JavaRandomModel.next(first);
+
+			if (!matches(operations[i], operands[i], first, current)) {
+				return false;
+			}
+		}
+
+		return acceptsRemaining(current, random);
+	}
+
+	/**
+	 * Accepts the state at the start of the sequence. The compiled operations
+	 * read the states from the sequence, so chains evaluating the same
+	 * sequence share the work of stepping the generator.
+	 */
+	boolean acceptsSequence(StateSequence sequence, ModelRandom random) {
+		int step = 0;
+
+		for (int i = 0; i < operations.length; i++) {
+			long first = sequence.get(++step);
+			long last = operations[i] == NEXT_INT ? first : sequence.get(++step);
+
+			if (!matches(operations[i], operands[i], first, last)) {
+				return false;
+			}
+		}
+
+		return acceptsRemaining(sequence.get(step), random);
+	}
+
+	/**
+	 * Returns the top 26 bits of the first state that the chain accepts, or
+	 * UNKEYED if the chain does not start with a compiled operation. Every
+	 * compiled operation fixes those bits, so chains can be found by the first
+	 * step of a candidate without being evaluated.
+	 */
+	long firstKey() {
+		if (operations.length == 0) {
+			return UNKEYED;
+		}
+
+		long operand = operands[0];
+		switch (operations[0]) {
+		case NEXT_INT:
+			return (operand & 0xFFFFFFFFL) >>> 6;
+		case NEXT_LONG:
+			return ((operand - (int) operand) >>> 32) >>> 6;
+		default:
+			return operand < 0 ? UNKEYED : operand >>> 27;
+		}
+	}
+
+	/**
+	 * Returns the key of a candidate whose first step reaches the state.
+	 */
+	static long keyOf(long firstState) {
+		return firstState >>> 22;
+	}
+
+	private static boolean matches(int operation, long operand, long first, long last) {
+		switch (operation) {
+		case NEXT_INT:
+			return (int) (first >>> 16) == (int) operand;
+		case NEXT_LONG:
+			return ((long) (int) (first >>> 16) << 32) + (int) (last >>> 16) == operand;
+		default:
+			return ((first >>> 22) << 27) + (last >>> 21) == operand;
+		}
+	}
+
+	private boolean acceptsRemaining(long current, ModelRandom random) {
+		if (operations.length == filters.length) {
+			return true;
+		}
+
+		if (random == null) {
+			random = model.random(current);
+		}
+		else {
+			random.reset(current);
+		}
+
+		for (int i = operations.length; i < filters.length; i++) {
+			if (!filters[i].accepts(random)) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Returns the total score of the state, or SeedFilter.REJECTED.
+	 */
+	double score(long state) {
+		ModelRandom random = model.random(state);
+		double total = 0;
+
+		for (Filter filter : filters) {
+			if (filter instanceof ScoredFilter) {
+				total += ((ScoredFilter) filter).score(random);
+			}
+			else if (!filter.accepts(random)) {
+				return SeedFilter.REJECTED;
+			}
+		}
+
+		return total;
+	}
+
+	private static int compiledLength(Filter[] filters) {
+		int length = 0;
+
+		while (length < filters.length && isCompilable(filters[length])) {
+			length++;
+		}
+		return length;
+	}
+
+	/**
+	 * Subclasses may override accepts, so only the exact classes are
+	 * compiled.
+	 */
+	private static boolean isCompilable(Filter filter) {
+		Class<?> type = filter.getClass();
+		return type == IntFilter.class || type == LongFilter.class || type == DoubleFilter.class;
+	}
+
+	/**
+	 * A double is compared by the 53 bit value that nextDouble() scales, so a
+	 * result that nextDouble() cannot return is never matched.
+	 */
+	private void compile(int index, Filter filter) {
+		if (filter instanceof IntFilter) {
+			operations[index] = NEXT_INT;
+			operands[index] = ((IntFilter) filter).getResult();
+		}
+		else if (filter instanceof LongFilter) {
+			operations[index] = NEXT_LONG;
+			operands[index] = ((LongFilter) filter).getResult();
+		}
+		else {
+			double result = ((DoubleFilter) filter).getResult();
+			long bits = (long) (result / DOUBLE_UNIT);
+
+			operations[index] = NEXT_DOUBLE;
+			operands[index] = bits * DOUBLE_UNIT == result && result >= 0 && result < 1 ? bits : -1;
+		}
+	}
+}
@@ -0,0 +1,120 @@
+package com.franglen.oracle;
+
+import java.util.stream.LongStream;
+
+import com.franglen.oracle.filter.Filter;
+import com.franglen.oracle.model.PrngModel;
+
+/**
+ * One set of observations which is evaluated by a shared scan. The job holds
+ * its own filters and survivors.
+ * 
+ * A job stops being evaluated once it has failed or has collected more seeds
+ * than its survivor limit, without affecting the other jobs in the scan.
+ * 
+ * @author matthew
+ */
+public class RecoveryJob {
+
+	private final PrngModel model;
+	private final SeedFilter filter;
+	private volatile Survivors survivors;
+	private volatile long survivorLimit;
+	private volatile boolean overflowed;
+	private volatile RuntimeException failure;
+
+	RecoveryJob(PrngModel model) {
+		this.model = model;
+		filter = new SeedFilter(model);
+		survivors = Survivors.NONE;
+		survivorLimit = Long.MAX_VALUE;
+	}
+
+	public void addFilter(Filter filter) {
+		this.filter.addFilter(filter);
+	}
+
+	/**
+	 * Stops collecting seeds for the job once more than the limit have passed
+	 * in one iteration, so the job holds no more than the limit in memory.
+	 */
+	public void setSurvivorLimit(long survivorLimit) {
+		if (survivorLimit < 0) {
+			throw new IllegalArgumentException("Survivor limit must not be negative: " + survivorLimit);
+		}
+
+		this.survivorLimit = survivorLimit;
+	}
+
+	/**
+	 * Returns true if more seeds passed than the survivor limit. The survivors
+	 * of an overflowed job are incomplete.
+	 */
+	public boolean isOverflowed() {
+		return overflowed;
+	}
+
+	/**
+	 * Returns the exception thrown while evaluating the job, or null if it has
+	 * not failed.
+	 */
+	public RuntimeException getFailure() {
+		return failure;
+	}
+
+	/**
+	 * Returns the number of distinct internal states that have passed every
+	 * filter.
+	 */
+	public long size() {
+		return survivors.states.size();
+	}
+
+	/**
+	 * Streams the distinct internal states that have passed every filter, in
+	 * ascending order.
+	 */
+	public LongStream states() {
+		return survivors.states.stream();
+	}
+
+	/**
+	 * Streams every generated seed that produces one of the valid states, in
+	 * ascending order.
+	 */
+	public LongStream seeds() {
+		return survivors.seeds.stream();
+	}
+
+	FilterChain snapshot() {
+		return filter.snapshot();
+	}
+
+	long getSurvivorLimit() {
+		return survivorLimit;
+	}
+
+	/**
+	 * Returns true if the job has overflowed or failed, so it is no longer
+	 * evaluated.
+	 */
+	boolean isFinished() {
+		return overflowed || failure != null;
+	}
+
+	void overflow() {
+		overflowed = true;
+	}
+
+	void fail(RuntimeException failure) {
+		this.failure = failure;
+	}
+
+	void revalidate(FilterChain chain) {
+		survivors = survivors.retain(chain::acceptsState, model);
+	}
+
+	void add(long[] newSeeds) {
+		survivors = survivors.add(newSeeds, model);
+	}
+}
@@ -1,31 +1,97 @@
 package com.franglen.oracle;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Random;
-
 import com.franglen.oracle.filter.Filter;
+import com.franglen.oracle.model.JavaRandomModel;
+import com.franglen.oracle.model.ModelRandom;
+import com.franglen.oracle.model.PrngModel;
 
 
 /**
- * Holds the filters that the potential seeds must pass.
+ * Holds the filters that the potential seeds must pass. The filters are
+ * applied to a Random object that follows the model of the generator.
+ * 
+ * Filters may be added while seeds are being tested. Each iteration should
+ * take a snapshot, which is an immutable chain that does not see filters
+ * added after it was taken.
  * 
  * @author matthew
  */
 public class SeedFilter {
 
-	private final List<Filter> filters;
+	/**
+	 * The score of a seed which has failed a filter that is not scored.
+	 */
+	public static final double REJECTED = Double.NEGATIVE_INFINITY;
+
+	private final PrngModel model;
+	private volatile FilterChain chain;
 
 	public SeedFilter() {
-		filters = new ArrayList<>();
+		this(JavaRandomModel.INSTANCE);
+	}
+
+	public SeedFilter(PrngModel model) {
+		this.model = model;
+		chain = new FilterChain(model);
+	}
+
+	public PrngModel getModel() {
+		return model;
+	}
+
+	public boolean accepts(long seed) {
+		return acceptsState(model.toState(seed));
+	}
+
+	/**
+	 * Accepts the internal state of the generator. Every seed that maps to the
+	 * state is accepted or rejected together.
+	 */
+	public boolean acceptsState(long state) {
+		return chain.acceptsState(state);
+	}
+
+	/**
+	 * Accepts the internal state of the generator using a Random object from
+	 * the model, which is reset to the state first. This avoids creating a
+	 * Random object for every state.
+	 */
+	public boolean acceptsState(long state, ModelRandom random) {
+		return chain.acceptsState(state, random);
+	}
+
+	/**
+	 * Returns the total score of the seed. Scored filters add their score to
+	 * the total, while any other filter must accept the seed or it is
+	 * rejected.
+	 */
+	public double score(long seed) {
+		return chain.score(model.toState(seed));
+	}
+
+	/**
+	 * Adds a filter, which is first tried against the model so that a filter
+	 * the model cannot evaluate is rejected here rather than during a scan.
+	 */
+	public synchronized void addFilter(Filter filter) {
+		checkSupported(model, filter);
+		chain = chain.with(filter);
 	}
 
-	public boolean accepts(Long seed) {
-		Random state = new Random(seed);
-		return filters.stream().allMatch((Filter filter) -> filter.accepts(state));
+	/**
+	 * Throws an IllegalArgumentException if the filter draws a value that the
+	 * model does not support, such as a gaussian from SplittableRandom.
+	 */
+	public static void checkSupported(PrngModel model, Filter filter) {
+		try {
+			filter.accepts(model.random(0));
+		}
+		catch (UnsupportedOperationException e) {
+			throw new IllegalArgumentException("Filter is not supported by " + model.getClass().getSimpleName() + ": " + filter, e);
+		}
 	}
 
-	public void addFilter(Filter filter) {
-		filters.add(filter);
+	FilterChain snapshot() {
+		return chain;
 	}
 }
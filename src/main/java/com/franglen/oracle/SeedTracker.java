@@ -1,16 +1,33 @@
 package com.franglen.oracle;
 
-import java.util.Collection;
-import java.util.Collections;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.DoubleStream;
+import java.util.stream.LongStream;
 
+import com.franglen.oracle.collection.BoundedHeap;
+import com.franglen.oracle.collection.CandidateSet;
+import com.franglen.oracle.collection.ConcurrentLongHashSet;
 import com.franglen.oracle.filter.Filter;
 import com.franglen.oracle.generator.Generator;
+import com.franglen.oracle.model.JavaRandomModel;
+import com.franglen.oracle.model.PrngModel;
 
 /**
  * Generates, filters, and collects the seeds which pass.
  * 
+ * Different seeds can produce the same internal state in the generator.
+ * The survivors are held as distinct states so that each one is only
+ * validated once, while every seed that produced a surviving state is
+ * retained. Dense survivors are held in compressed containers rather than
+ * one value at a time.
+ * 
+ * When a candidate limit is set the tracker scores the states instead, keeping
+ * only the highest scoring ones. This tolerates observations which are
+ * imprecise or occasionally wrong, and holds no more than the limit in memory
+ * however many seeds partially match.
+ * 
  * @author matthew
  */
 public class SeedTracker {
@@ -18,15 +35,24 @@ public class SeedTracker {
 	private static final long DEFAULT_ITERATION_SIZE = 1_000_000;
 
 	private final Generator generator;
+	private final PrngModel model;
 	private final SeedFilter filter;
 	private long iterationSize;
-	private Collection<Long> validSeeds;
+	private int candidateLimit;
+	private Survivors survivors;
+	private double[] validScores;
 
 	public SeedTracker(Generator generator) {
+		this(generator, JavaRandomModel.INSTANCE);
+	}
+
+	public SeedTracker(Generator generator, PrngModel model) {
 		this.generator = generator;
-		filter = new SeedFilter();
+		this.model = model;
+		filter = new SeedFilter(model);
 		iterationSize = DEFAULT_ITERATION_SIZE;
-		validSeeds = Collections.emptyList();
+		survivors = Survivors.NONE;
+		validScores = new double[0];
 	}
 
 	public void addFilter(Filter filter) {
@@ -37,20 +63,122 @@ public class SeedTracker {
 		this.iterationSize = iterationSize;
 	}
 
+	/**
+	 * Adds internal states, such as those read from a snapshot, along with a
+	 * seed for each. The states are checked against the filters on the next
+	 * iteration.
+	 */
+	public void addStates(LongStream states) {
+		survivors = survivors.add(states.map(model::toSeed).toArray(), model);
+		validScores = new double[0];
+	}
+
+	/**
+	 * Keeps only the given number of states with the highest total score from
+	 * each iteration. A limit of zero requires the seeds to pass every filter.
+	 */
+	public void setCandidateLimit(int candidateLimit) {
+		if (candidateLimit < 0) {
+			throw new IllegalArgumentException("Candidate limit must not be negative: " + candidateLimit);
+		}
+
+		this.candidateLimit = candidateLimit;
+	}
+
+	/**
+	 * Returns the number of distinct internal states that have passed every
+	 * filter.
+	 */
 	public long size() {
-		return validSeeds.size();
+		return survivors.states.size();
+	}
+
+	/**
+	 * Streams the distinct internal states that have passed every filter, in
+	 * ascending order.
+	 */
+	public LongStream states() {
+		return survivors.states.stream();
+	}
+
+	/**
+	 * Streams every generated seed that produces one of the valid states, in
+	 * ascending order.
+	 */
+	public LongStream seeds() {
+		return survivors.seeds.stream();
+	}
+
+	/**
+	 * Returns an estimate of the memory used to hold the valid states and
+	 * seeds.
+	 */
+	public long sizeInBytes() {
+		return survivors.sizeInBytes();
+	}
+
+	/**
+	 * Streams the scores of the seeds, in the same order as the seeds. This is
+	 * empty unless a candidate limit is set.
+	 */
+	public DoubleStream scores() {
+		return Arrays.stream(validScores);
 	}
 
 	public void iterate() {
-		Stream<Long> combinedSeedStream = Stream.concat(validateExistingSeeds(), validateNewSeeds());
-		validSeeds = combinedSeedStream.collect(Collectors.toList());
+		if (candidateLimit > 0) {
+			iterateScored();
+		}
+		else {
+			iterateExact();
+		}
+	}
+
+	private void iterateExact() {
+		FilterChain chain = filter.snapshot();
+		Survivors retained = survivors.retain(chain::acceptsState, model);
+		long[] newSeeds = validateNewSeeds(chain);
+
+		survivors = retained.add(newSeeds, model);
+		validScores = new double[0];
 	}
 
-	private Stream<Long> validateExistingSeeds() {
-		return validSeeds.stream().parallel().filter(filter::accepts);
+	/**
+	 * Ranks the distinct states rather than the seeds, so seeds which produce
+	 * the same state share one place among the candidates. The seeds of the
+	 * highest scoring states are attached afterwards.
+	 * 
+	 * Each worker thread fills its own heap and the heaps are merged at the
+	 * end, so no locking is needed and no more than one heap is held for
+	 * each thread.
+	 */
+	private void iterateScored() {
+		FilterChain chain = filter.snapshot();
+		CandidateSet survivingStates = survivors.states;
+		long[] newSeeds = generator.stream(iterationSize).toArray();
+		ConcurrentLongHashSet newStates = new ConcurrentLongHashSet(newSeeds.length);
+		LongStream states = LongStream.concat(survivingStates.stream(),
+				Arrays.stream(newSeeds).map(model::toState).filter((long state) -> !survivingStates.contains(state)).filter(newStates::add));
+
+		Map<Thread, BoundedHeap> heaps = new ConcurrentHashMap<>();
+		states.parallel().forEach((long state) -> offer(chain, heaps.computeIfAbsent(Thread.currentThread(), (Thread thread) -> new BoundedHeap(candidateLimit)), state));
+
+		BoundedHeap candidates = new BoundedHeap(candidateLimit);
+		heaps.values().forEach(candidates::addAll);
+
+		survivors = survivors.select(candidates.values(), newSeeds, model);
+		validScores = survivors.seeds.stream().mapToDouble((long seed) -> chain.score(model.toState(seed))).toArray();
+	}
+
+	private void offer(FilterChain chain, BoundedHeap candidates, long state) {
+		double score = chain.score(state);
+
+		if (score != SeedFilter.REJECTED) {
+			candidates.offer(state, score);
+		}
 	}
 
-	private Stream<Long> validateNewSeeds() {
-		return generator.stream(iterationSize).parallel().mapToObj(Long::new).filter(filter::accepts);
+	private long[] validateNewSeeds(FilterChain chain) {
+		return generator.stream(iterationSize).parallel().filter((long seed) -> chain.acceptsState(model.toState(seed))).toArray();
 	}
 }
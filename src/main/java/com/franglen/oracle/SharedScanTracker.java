@@ -0,0 +1,237 @@
+package com.franglen.oracle;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.stream.IntStream;
+
+import com.franglen.oracle.collection.LongList;
+import com.franglen.oracle.generator.Generator;
+import com.franglen.oracle.model.JavaRandomModel;
+import com.franglen.oracle.model.ModelRandom;
+import com.franglen.oracle.model.PrngModel;
+
+/**
+ * Scans a generator once for many independent jobs.
+ * 
+ * Each generated seed is turned into its internal state once. For
+ * java.util.Random the successive states of each candidate are stepped to once
+ * and shared by every job, and jobs which start with an exact observation are
+ * indexed by the first state that they accept. A candidate is only evaluated
+ * by the jobs whose index matches its first step, along with any jobs which
+ * cannot be indexed, so the cost of each job falls as jobs are added.
+ * 
+ * Survivors are collected by each worker for each job and routed back to the
+ * jobs once the scan is complete. The workers share a count of the survivors of
+ * each job, so a job stops collecting as soon as it passes its survivor limit.
+ * A job whose filters throw is failed on its own and the scan carries on for
+ * the others.
+ * 
+ * @author matthew
+ */
+public class SharedScanTracker {
+
+	private static final long DEFAULT_ITERATION_SIZE = 1_000_000;
+
+	private final Generator generator;
+	private final PrngModel model;
+	private final List<RecoveryJob> jobs;
+	private long iterationSize;
+	private long evaluationCount;
+
+	public SharedScanTracker(Generator generator) {
+		this(generator, JavaRandomModel.INSTANCE);
+	}
+
+	public SharedScanTracker(Generator generator, PrngModel model) {
+		this.generator = generator;
+		this.model = model;
+		jobs = new CopyOnWriteArrayList<>();
+		iterationSize = DEFAULT_ITERATION_SIZE;
+	}
+
+	/**
+	 * Adds a job which will be evaluated from the next iteration. The job does
+	 * not see the seeds of earlier iterations.
+	 */
+	public RecoveryJob addJob() {
+		RecoveryJob job = new RecoveryJob(model);
+		jobs.add(job);
+		return job;
+	}
+
+	public void setIterationSize(long iterationSize) {
+		this.iterationSize = iterationSize;
+	}
+
+	/**
+	 * Returns the number of times that a job was evaluated against a candidate
+	 * in the last iteration.
+	 */
+	long getEvaluationCount() {
+		return evaluationCount;
+	}
+
+	public void iterate() {
+		RecoveryJob[] current = jobs.stream().filter((RecoveryJob job) -> !job.isFinished() && revalidate(job)).toArray(RecoveryJob[]::new);
+		evaluationCount = 0;
+		if (current.length == 0) {
+			return;
+		}
+
+		FilterChain[] chains = Arrays.stream(current).map(RecoveryJob::snapshot).toArray(FilterChain[]::new);
+		long[] limits = Arrays.stream(current).mapToLong(RecoveryJob::getSurvivorLimit).toArray();
+		AtomicLongArray collected = new AtomicLongArray(current.length);
+		AtomicReferenceArray<RuntimeException> failures = new AtomicReferenceArray<>(current.length);
+
+		JobIndex index = new JobIndex(chains);
+		ScanResult result = generator.stream(iterationSize).parallel().collect(() -> new ScanResult(chains, index, limits, collected, failures), ScanResult::test, ScanResult::addAll);
+
+		for (int i = 0; i < current.length; i++) {
+			if (failures.get(i) != null) {
+				current[i].fail(failures.get(i));
+			}
+			else if (collected.get(i) > limits[i]) {
+				current[i].overflow();
+			}
+			else {
+				current[i].add(result.survivors[i].toArray());
+			}
+		}
+		evaluationCount = result.evaluations;
+	}
+
+	/**
+	 * Returns false if the filters of the job threw while checking its
+	 * survivors, failing the job.
+	 */
+	private static boolean revalidate(RecoveryJob job) {
+		try {
+			job.revalidate(job.snapshot());
+			return true;
+		}
+		catch (RuntimeException e) {
+			job.fail(e);
+			return false;
+		}
+	}
+
+	/**
+	 * The jobs grouped by the key of the first state that they accept. Jobs
+	 * which cannot be keyed are evaluated for every candidate.
+	 */
+	private static class JobIndex {
+
+		private final long[] keys;
+		private final int[] starts;
+		private final int[] keyedJobs;
+		private final int[] unkeyedJobs;
+
+		JobIndex(FilterChain[] chains) {
+			Integer[] order = IntStream.range(0, chains.length).boxed().toArray(Integer[]::new);
+			Arrays.sort(order, Comparator.comparingLong((Integer job) -> chains[job].firstKey()));
+
+			unkeyedJobs = Arrays.stream(order).mapToInt(Integer::intValue).filter((int job) -> chains[job].firstKey() == FilterChain.UNKEYED).toArray();
+			keyedJobs = Arrays.stream(order).mapToInt(Integer::intValue).filter((int job) -> chains[job].firstKey() != FilterChain.UNKEYED).toArray();
+			keys = Arrays.stream(keyedJobs).mapToLong((int job) -> chains[job].firstKey()).distinct().toArray();
+
+			starts = new int[keys.length + 1];
+			for (int i = 0, key = 0; i < keyedJobs.length; i++) {
+				if (chains[keyedJobs[i]].firstKey() != keys[key]) {
+					starts[++key] = i;
+				}
+			}
+			starts[keys.length] = keyedJobs.length;
+		}
+
+		boolean hasKeys() {
+			return keys.length > 0;
+		}
+	}
+
+	/**
+	 * Collects the survivors of each job for one worker, along with the Random
+	 * object and the sequence of states that the worker shares between the
+	 * jobs. The survivor counts and failures are shared by every worker.
+	 */
+	private class ScanResult {
+
+		private final FilterChain[] chains;
+		private final JobIndex index;
+		private final long[] limits;
+		private final AtomicLongArray collected;
+		private final AtomicReferenceArray<RuntimeException> failures;
+		private final LongList[] survivors;
+		private final ModelRandom random;
+		private final StateSequence sequence;
+		private long evaluations;
+
+		ScanResult(FilterChain[] chains, JobIndex index, long[] limits, AtomicLongArray collected, AtomicReferenceArray<RuntimeException> failures) {
+			this.chains = chains;
+			this.index = index;
+			this.limits = limits;
+			this.collected = collected;
+			this.failures = failures;
+			survivors = new LongList[chains.length];
+			for (int i = 0; i < chains.length; i++) {
+				survivors[i] = new LongList();
+			}
+			random = model.random(0);
+			sequence = new StateSequence();
+		}
+
+		void test(long seed) {
+			sequence.reset(model.toState(seed));
+
+			for (int job : index.unkeyedJobs) {
+				test(job, seed);
+			}
+
+			if (index.hasKeys()) {
+				int key = Arrays.binarySearch(index.keys, FilterChain.keyOf(sequence.get(1)));
+				if (key >= 0) {
+					for (int i = index.starts[key]; i < index.starts[key + 1]; i++) {
+						test(index.keyedJobs[i], seed);
+					}
+				}
+			}
+		}
+
+		/**
+		 * Jobs without a limit are not counted, so they do not contend on the
+		 * shared counts.
+		 */
+		private void test(int job, long seed) {
+			if (failures.get(job) != null || collected.get(job) > limits[job]) {
+				return;
+			}
+
+			evaluations++;
+			try {
+				if (!chains[job].acceptsSequence(sequence, random)) {
+					return;
+				}
+			}
+			catch (RuntimeException e) {
+				failures.compareAndSet(job, null, e);
+				return;
+			}
+
+			if (limits[job] == Long.MAX_VALUE || collected.incrementAndGet(job) <= limits[job]) {
+				survivors[job].add(seed);
+			}
+		}
+
+		void addAll(ScanResult other) {
+			for (int i = 0; i < survivors.length; i++) {
+				if (collected.get(i) <= limits[i]) {
+					survivors[i].addAll(other.survivors[i]);
+				}
+			}
+			evaluations += other.evaluations;
+		}
+	}
+}
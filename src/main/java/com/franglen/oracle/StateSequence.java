@@ -0,0 +1,46 @@
+package com.franglen.oracle;
+
+import java.util.Arrays;
+
+import com.franglen.oracle.model.JavaRandomModel;
+
+/**
+ * The successive states of java.util.Random from one starting state. States
+ * are only stepped to when they are first asked for, and are then held so
+ * that many filter chains can compare against them without stepping the
+ * generator again.
+ * 
+ * The sequence is not thread safe, so each worker should hold its own.
+ * 
+ * @author matthew
+ */
+final class StateSequence {
+
+	private static final int INITIAL_CAPACITY = 16;
+
+	private long[] states;
+	private int length;
+
+	StateSequence() {
+		states = new long[INITIAL_CAPACITY];
+	}
+
+	void reset(long state) {
+		states[0] = state;
+		length = 1;
+	}
+
+	/**
+	 * Returns the state after the given number of steps from the start.
+	 */
+	long get(int step) {
+		while (length <= step) {
+			if (length == states.length) {
+				states = Arrays.copyOf(states, length * 2);
+			}
+			states[length] = JavaRandomModel.next(states[length - 1]);
+			length++;
+		}
+		return states[step];
+	}
+}
@@ -0,0 +1,80 @@
+package com.franglen.oracle;
+
+import java.util.Arrays;
+import java.util.function.LongPredicate;
+import java.util.stream.LongStream;
+
+import com.franglen.oracle.collection.CandidateSet;
+import com.franglen.oracle.collection.ConcurrentLongHashSet;
+import com.franglen.oracle.model.PrngModel;
+
+/**
+ * The distinct internal states that have passed the filters, along with every
+ * generated seed that produces one of them.
+ * 
+ * @author matthew
+ */
+class Survivors {
+
+	static final Survivors NONE = new Survivors(CandidateSet.empty(), CandidateSet.empty());
+
+	final CandidateSet states;
+	final CandidateSet seeds;
+
+	Survivors(CandidateSet states, CandidateSet seeds) {
+		this.states = states;
+		this.seeds = seeds;
+	}
+
+	/**
+	 * Creates survivors from seeds which have already been accepted.
+	 */
+	static Survivors of(long[] seeds, PrngModel model) {
+		return new Survivors(CandidateSet.of(Arrays.stream(seeds).map(model::toState).toArray()), CandidateSet.of(seeds));
+	}
+
+	/**
+	 * Keeps only the given states, with the seeds from these survivors and
+	 * the new seeds which produce them.
+	 */
+	Survivors select(long[] selectedStates, long[] newSeeds, PrngModel model) {
+		CandidateSet selected = CandidateSet.of(selectedStates);
+		long[] selectedSeeds = LongStream.concat(seeds.stream(), Arrays.stream(newSeeds)).parallel()
+				.filter((long seed) -> selected.contains(model.toState(seed))).distinct().toArray();
+
+		return new Survivors(selected, CandidateSet.of(selectedSeeds));
+	}
+
+	/**
+	 * Keeps the states which pass the predicate, and the seeds which produce
+	 * them.
+	 */
+	Survivors retain(LongPredicate acceptsState, PrngModel model) {
+		CandidateSet retainedStates = states.filter(acceptsState);
+
+		if (retainedStates.size() == states.size()) {
+			return this;
+		}
+		return new Survivors(retainedStates, seeds.filter((long seed) -> retainedStates.contains(model.toState(seed))));
+	}
+
+	/**
+	 * Adds newly accepted seeds. Their states are checked against the
+	 * surviving states, and against each other through a concurrent set, so
+	 * that only distinct states are added.
+	 */
+	Survivors add(long[] newSeeds, PrngModel model) {
+		if (newSeeds.length == 0) {
+			return this;
+		}
+
+		ConcurrentLongHashSet newStates = new ConcurrentLongHashSet(newSeeds.length);
+		long[] addedStates = Arrays.stream(newSeeds).parallel().map(model::toState).filter((long state) -> !states.contains(state)).filter(newStates::add).toArray();
+
+		return new Survivors(states.union(addedStates), seeds.union(newSeeds));
+	}
+
+	long sizeInBytes() {
+		return states.sizeInBytes() + seeds.sizeInBytes();
+	}
+}
@@ -0,0 +1,357 @@
+package com.franglen.oracle.cache;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import com.franglen.oracle.SeedFilter;
+import com.franglen.oracle.collection.CandidateSet;
+import com.franglen.oracle.collection.LongList;
+import com.franglen.oracle.filter.Filter;
+import com.franglen.oracle.model.ModelRandom;
+import com.franglen.oracle.model.PrngModel;
+
+/**
+ * Caches the candidates that remain after each prefix of a sequence of
+ * observations, so that queries which share a prefix only apply the filters
+ * that follow it.
+ * 
+ * The cache is a trie for each model and range of seeds, with one level for
+ * each filter. A node holds the original state of every candidate that passed
+ * the filters leading to it, along with the state the generator has reached
+ * after them. A query resumes from the deepest cached node on its path.
+ * 
+ * The cache is bounded by the memory used by the candidates. The least
+ * recently used nodes are evicted first.
+ * 
+ * @author matthew
+ */
+public class PrefixCache {
+
+	/**
+	 * An original state and a current state for each candidate.
+	 */
+	private static final long BYTES_PER_CANDIDATE = 2 * Long.BYTES;
+
+	private final long maximumBytes;
+	private final Map<RangeKey, Node> roots;
+	private final LinkedHashMap<Node, Node> cachedNodes;
+	private long sizeInBytes;
+	private long hitCount;
+	private long missCount;
+	private long evictionCount;
+
+	public PrefixCache(long maximumBytes) {
+		if (maximumBytes < 0) {
+			throw new IllegalArgumentException("Maximum size must not be negative: " + maximumBytes);
+		}
+
+		this.maximumBytes = maximumBytes;
+		roots = new HashMap<>();
+		cachedNodes = new LinkedHashMap<>(16, 0.75f, true);
+	}
+
+	/**
+	 * Returns the original states of the candidates in the range of seeds
+	 * which pass every filter.
+	 */
+	public CandidateSet recover(PrngModel model, long start, long size, List<Filter> filters) {
+		filters.forEach((Filter filter) -> SeedFilter.checkSupported(model, filter));
+
+		RangeKey key = new RangeKey(model, start, size);
+		Candidates resumeFrom = find(key, filters);
+
+		if (resumeFrom != null && resumeFrom.depth == filters.size()) {
+			return CandidateSet.of(resumeFrom.origins.clone());
+		}
+
+		Evaluation evaluation = resumeFrom == null ? Evaluation.fromRange(model, start, size, filters, candidateLimit()) : Evaluation.fromCandidates(model, resumeFrom, filters, candidateLimit());
+		store(key, filters, evaluation);
+
+		return CandidateSet.of(evaluation.survivors);
+	}
+
+	/**
+	 * Returns the number of queries which resumed from a cached prefix.
+	 */
+	public synchronized long getHitCount() {
+		return hitCount;
+	}
+
+	/**
+	 * Returns the number of queries which had to scan the range.
+	 */
+	public synchronized long getMissCount() {
+		return missCount;
+	}
+
+	public synchronized long getEvictionCount() {
+		return evictionCount;
+	}
+
+	/**
+	 * Returns the memory used by the cached candidates.
+	 */
+	public synchronized long getSizeInBytes() {
+		return sizeInBytes;
+	}
+
+	private long candidateLimit() {
+		return maximumBytes / BYTES_PER_CANDIDATE;
+	}
+
+	/**
+	 * Returns the candidates of the deepest cached prefix, or null if no
+	 * prefix is cached. The candidates are not changed by eviction.
+	 */
+	private synchronized Candidates find(RangeKey key, List<Filter> filters) {
+		Node node = roots.get(key), deepest = null;
+
+		for (int i = 0; node != null && i < filters.size(); i++) {
+			node = node.children.get(filters.get(i));
+			if (node != null && node.isCached()) {
+				deepest = node;
+			}
+		}
+
+		if (deepest == null) {
+			missCount++;
+			return null;
+		}
+
+		hitCount++;
+		cachedNodes.get(deepest);
+		return deepest.candidates;
+	}
+
+	private synchronized void store(RangeKey key, List<Filter> filters, Evaluation evaluation) {
+		Node node = roots.computeIfAbsent(key, (RangeKey root) -> new Node(null, root));
+
+		for (int i = 0; i < filters.size(); i++) {
+			Node parent = node;
+			node = parent.children.computeIfAbsent(filters.get(i), (Object filter) -> new Node(parent, filter));
+
+			if (evaluation.isComplete(i + 1) && !node.isCached()) {
+				node.candidates = new Candidates(i + 1, evaluation.origins[i + 1].toArray(), evaluation.currents[i + 1].toArray());
+				sizeInBytes += node.candidates.sizeInBytes();
+				cachedNodes.put(node, node);
+			}
+		}
+
+		evict();
+		prune(node);
+	}
+
+	private void evict() {
+		for (Iterator<Node> nodes = cachedNodes.keySet().iterator(); sizeInBytes > maximumBytes && nodes.hasNext();) {
+			Node node = nodes.next();
+
+			nodes.remove();
+			sizeInBytes -= node.candidates.sizeInBytes();
+			node.candidates = null;
+			evictionCount++;
+			prune(node);
+		}
+	}
+
+	/**
+	 * Removes nodes which hold no candidates and lead to no cached nodes.
+	 */
+	private void prune(Node node) {
+		while (node != null && !node.isCached() && node.children.isEmpty()) {
+			if (node.parent == null) {
+				roots.remove(node.key);
+			}
+			else {
+				node.parent.children.remove(node.key);
+			}
+			node = node.parent;
+		}
+	}
+
+	private static class Node {
+
+		private final Node parent;
+		private final Object key;
+		private final Map<Object, Node> children;
+		private Candidates candidates;
+
+		Node(Node parent, Object key) {
+			this.parent = parent;
+			this.key = key;
+			children = new HashMap<>();
+		}
+
+		boolean isCached() {
+			return candidates != null;
+		}
+	}
+
+	/**
+	 * The candidates which passed the filters up to a depth. The current
+	 * state of each is the state of the generator after those filters.
+	 */
+	private static class Candidates {
+
+		private final int depth;
+		private final long[] origins;
+		private final long[] currents;
+
+		Candidates(int depth, long[] origins, long[] currents) {
+			this.depth = depth;
+			this.origins = origins;
+			this.currents = currents;
+		}
+
+		long sizeInBytes() {
+			return (long) origins.length * BYTES_PER_CANDIDATE;
+		}
+	}
+
+	private static class RangeKey {
+
+		private final PrngModel model;
+		private final long start;
+		private final long size;
+
+		RangeKey(PrngModel model, long start, long size) {
+			this.model = model;
+			this.start = start;
+			this.size = size;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (!(other instanceof RangeKey)) {
+				return false;
+			}
+
+			RangeKey key = (RangeKey) other;
+			return model.equals(key.model) && start == key.start && size == key.size;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(model, start, size);
+		}
+	}
+
+	/**
+	 * Applies the filters after a depth to each candidate, recording the
+	 * candidates that reach every later depth.
+	 * 
+	 * A depth is only recorded while it holds no more candidates than the
+	 * cache could store, and only if every candidate can be resumed from its
+	 * state alone. Otherwise the depth is incomplete and is not cached.
+	 */
+	private static class Evaluation {
+
+		private final PrngModel model;
+		private final List<Filter> filters;
+		private final int depth;
+		private final AtomicLongArray remaining;
+		private LongList[] origins;
+		private LongList[] currents;
+		private long[] survivors;
+
+		private Evaluation(PrngModel model, List<Filter> filters, int depth, long candidateLimit) {
+			this.model = model;
+			this.filters = new ArrayList<>(filters);
+			this.depth = depth;
+
+			long[] limits = new long[filters.size() + 1];
+			Arrays.fill(limits, candidateLimit);
+			remaining = new AtomicLongArray(limits);
+		}
+
+		static Evaluation fromRange(PrngModel model, long start, long size, List<Filter> filters, long candidateLimit) {
+			Evaluation evaluation = new Evaluation(model, filters, 0, candidateLimit);
+			Worker result = LongStream.range(start, start + size).parallel().map(model::toState)
+					.collect(evaluation::worker, (Worker worker, long state) -> worker.test(state, state), Worker::addAll);
+			return evaluation.complete(result);
+		}
+
+		static Evaluation fromCandidates(PrngModel model, Candidates candidates, List<Filter> filters, long candidateLimit) {
+			Evaluation evaluation = new Evaluation(model, filters, candidates.depth, candidateLimit);
+			Worker result = IntStream.range(0, candidates.origins.length).parallel()
+					.collect(evaluation::worker, (Worker worker, int index) -> worker.test(candidates.origins[index], candidates.currents[index]), Worker::addAll);
+			return evaluation.complete(result);
+		}
+
+		boolean isComplete(int depth) {
+			return depth > this.depth && remaining.get(depth) >= 0;
+		}
+
+		private Worker worker() {
+			return new Worker();
+		}
+
+		private Evaluation complete(Worker result) {
+			origins = result.origins;
+			currents = result.currents;
+			survivors = result.survivors.toArray();
+			return this;
+		}
+
+		private class Worker {
+
+			private final ModelRandom random;
+			private final LongList[] origins;
+			private final LongList[] currents;
+			private final LongList survivors;
+
+			Worker() {
+				random = model.random(0);
+				origins = new LongList[filters.size() + 1];
+				currents = new LongList[filters.size() + 1];
+				for (int i = depth + 1; i <= filters.size(); i++) {
+					origins[i] = new LongList();
+					currents[i] = new LongList();
+				}
+				survivors = new LongList();
+			}
+
+			void test(long origin, long current) {
+				random.reset(current);
+
+				for (int i = depth; i < filters.size(); i++) {
+					if (!filters.get(i).accepts(random)) {
+						return;
+					}
+					record(i + 1, origin);
+				}
+
+				survivors.add(origin);
+			}
+
+			private void record(int recordDepth, long origin) {
+				if (remaining.get(recordDepth) < 0) {
+					return;
+				}
+				if (random.hasCachedValues() || remaining.decrementAndGet(recordDepth) < 0) {
+					remaining.set(recordDepth, -1);
+					return;
+				}
+
+				origins[recordDepth].add(origin);
+				currents[recordDepth].add(random.getState());
+			}
+
+			void addAll(Worker other) {
+				for (int i = depth + 1; i <= filters.size(); i++) {
+					origins[i].addAll(other.origins[i]);
+					currents[i].addAll(other.currents[i]);
+				}
+				survivors.addAll(other.survivors);
+			}
+		}
+	}
+}
@@ -0,0 +1,53 @@
+package com.franglen.oracle.collection;
+
+import java.util.Arrays;
+import java.util.function.LongPredicate;
+import java.util.stream.LongStream;
+
+/**
+ * Holds sparse candidates as a sorted array.
+ * 
+ * @author matthew
+ */
+class ArrayCandidateSet implements CandidateSet {
+
+	static final ArrayCandidateSet EMPTY = new ArrayCandidateSet(new long[0]);
+
+	private final long[] values;
+
+	/**
+	 * The values must be sorted and distinct.
+	 */
+	ArrayCandidateSet(long[] values) {
+		this.values = values;
+	}
+
+	@Override
+	public long size() {
+		return values.length;
+	}
+
+	@Override
+	public boolean contains(long value) {
+		return Arrays.binarySearch(values, value) >= 0;
+	}
+
+	@Override
+	public LongStream stream() {
+		return Arrays.stream(values);
+	}
+
+	/**
+	 * The parallel stream keeps the encounter order, so the result is still
+	 * sorted.
+	 */
+	@Override
+	public CandidateSet filter(LongPredicate predicate) {
+		return new ArrayCandidateSet(Arrays.stream(values).parallel().filter(predicate).toArray());
+	}
+
+	@Override
+	public long sizeInBytes() {
+		return (long) values.length * Long.BYTES;
+	}
+}
@@ -0,0 +1,45 @@
+package com.franglen.oracle.collection;
+
+import java.util.Arrays;
+
+/**
+ * Holds sparse values as a sorted array.
+ * 
+ * @author matthew
+ */
+class ArrayContainer extends Container {
+
+	private final char[] values;
+
+	private ArrayContainer(char[] values) {
+		this.values = values;
+	}
+
+	static ArrayContainer of(char[] values, int count) {
+		return new ArrayContainer(Arrays.copyOf(values, count));
+	}
+
+	static long sizeInBytes(int count) {
+		return (long) count * Character.BYTES;
+	}
+
+	@Override
+	int cardinality() {
+		return values.length;
+	}
+
+	@Override
+	boolean contains(char value) {
+		return Arrays.binarySearch(values, value) >= 0;
+	}
+
+	@Override
+	char[] toArray() {
+		return values.clone();
+	}
+
+	@Override
+	long sizeInBytes() {
+		return sizeInBytes(values.length);
+	}
+}
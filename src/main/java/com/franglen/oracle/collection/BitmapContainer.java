@@ -0,0 +1,58 @@
+package com.franglen.oracle.collection;
+
+/**
+ * Holds dense values as one bit per possible value.
+ * 
+ * @author matthew
+ */
+class BitmapContainer extends Container {
+
+	static final long SIZE_IN_BYTES = CAPACITY / Byte.SIZE;
+
+	private final long[] words;
+	private final int cardinality;
+
+	private BitmapContainer(long[] words, int cardinality) {
+		this.words = words;
+		this.cardinality = cardinality;
+	}
+
+	static BitmapContainer of(char[] values, int count) {
+		long[] words = new long[CAPACITY / Long.SIZE];
+
+		for (int i = 0; i < count; i++) {
+			words[values[i] >>> 6] |= 1L << values[i];
+		}
+
+		return new BitmapContainer(words, count);
+	}
+
+	@Override
+	int cardinality() {
+		return cardinality;
+	}
+
+	@Override
+	boolean contains(char value) {
+		return (words[value >>> 6] & (1L << value)) != 0;
+	}
+
+	@Override
+	char[] toArray() {
+		char[] values = new char[cardinality];
+		int count = 0;
+
+		for (int word = 0; word < words.length; word++) {
+			for (long bits = words[word]; bits != 0; bits &= bits - 1) {
+				values[count++] = (char) ((word << 6) + Long.numberOfTrailingZeros(bits));
+			}
+		}
+
+		return values;
+	}
+
+	@Override
+	long sizeInBytes() {
+		return SIZE_IN_BYTES;
+	}
+}
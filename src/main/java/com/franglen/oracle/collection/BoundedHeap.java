@@ -0,0 +1,137 @@
+package com.franglen.oracle.collection;
+
+import java.util.Arrays;
+
+/**
+ * Holds the values with the highest scores that have been offered to it, up
+ * to a fixed capacity.
+ * 
+ * The heap is not thread safe. Each worker is expected to fill its own heap,
+ * which are then merged once the workers have finished. The arrays grow as
+ * values are added, so a heap which is offered few values stays small
+ * whatever its capacity.
+ * 
+ * @author matthew
+ */
+public class BoundedHeap {
+
+	private static final int INITIAL_CAPACITY = 16;
+
+	private final int capacity;
+	private long[] values;
+	private double[] scores;
+	private int size;
+
+	public BoundedHeap(int capacity) {
+		if (capacity <= 0) {
+			throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+		}
+
+		this.capacity = capacity;
+		values = new long[Math.min(capacity, INITIAL_CAPACITY)];
+		scores = new double[values.length];
+		size = 0;
+	}
+
+	/**
+	 * Adds the value if the heap has room or the score is higher than the
+	 * lowest score held.
+	 */
+	public void offer(long value, double score) {
+		if (size < capacity) {
+			if (size == values.length) {
+				grow();
+			}
+			values[size] = value;
+			scores[size] = score;
+			siftUp(size++);
+		}
+		else if (score > scores[0]) {
+			values[0] = value;
+			scores[0] = score;
+			siftDown(values, scores, 0, size);
+		}
+	}
+
+	/**
+	 * Offers every value held by the other heap to this one.
+	 */
+	public void addAll(BoundedHeap other) {
+		for (int i = 0; i < other.size; i++) {
+			offer(other.values[i], other.scores[i]);
+		}
+	}
+
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the values held, highest score first.
+	 */
+	public long[] values() {
+		long[] sortedValues = Arrays.copyOf(values, size);
+		sortDescending(sortedValues, Arrays.copyOf(scores, size));
+		return sortedValues;
+	}
+
+	/**
+	 * Returns the scores held, highest first.
+	 */
+	public double[] scores() {
+		double[] sortedScores = Arrays.copyOf(scores, size);
+		sortDescending(Arrays.copyOf(values, size), sortedScores);
+		return sortedScores;
+	}
+
+	private void grow() {
+		int length = (int) Math.min(capacity, 2L * values.length);
+		values = Arrays.copyOf(values, length);
+		scores = Arrays.copyOf(scores, length);
+	}
+
+	private void siftUp(int index) {
+		while (index > 0) {
+			int parent = (index - 1) >>> 1;
+			if (scores[parent] <= scores[index]) {
+				return;
+			}
+			swap(values, scores, parent, index);
+			index = parent;
+		}
+	}
+
+	/**
+	 * Repeatedly moves the lowest score to the end of the heap, which leaves
+	 * the arrays in descending order.
+	 */
+	private static void sortDescending(long[] values, double[] scores) {
+		for (int end = values.length - 1; end > 0; end--) {
+			swap(values, scores, 0, end);
+			siftDown(values, scores, 0, end);
+		}
+	}
+
+	private static void siftDown(long[] values, double[] scores, int index, int end) {
+		for (int child = index * 2 + 1; child < end; child = index * 2 + 1) {
+			if (child + 1 < end && scores[child + 1] < scores[child]) {
+				child++;
+			}
+			if (scores[index] <= scores[child]) {
+				return;
+			}
+			swap(values, scores, index, child);
+			index = child;
+		}
+	}
+
+	private static void swap(long[] values, double[] scores, int first, int second) {
+		long value = values[first];
+		values[first] = values[second];
+		values[second] = value;
+
+		double score = scores[first];
+		scores[first] = scores[second];
+		scores[second] = score;
+	}
+}
@@ -0,0 +1,64 @@
+package com.franglen.oracle.collection;
+
+import java.util.Arrays;
+import java.util.function.LongPredicate;
+import java.util.stream.LongStream;
+
+/**
+ * An immutable set of candidate values, such as the internal states or seeds
+ * that have passed every filter.
+ * 
+ * Sparse sets are held as a sorted array. Dense sets are divided into
+ * containers of 2^16 values which each use an array, a bitmap or a list of runs
+ * depending on which is smallest.
+ * 
+ * @author matthew
+ */
+public interface CandidateSet {
+
+	public long size();
+
+	public boolean contains(long value);
+
+	/**
+	 * Streams the values in ascending order.
+	 */
+	public LongStream stream();
+
+	/**
+	 * Returns a set of the values which pass the predicate. The values are
+	 * tested in parallel.
+	 */
+	public CandidateSet filter(LongPredicate predicate);
+
+	/**
+	 * Returns an estimate of the memory used to hold the values.
+	 */
+	public long sizeInBytes();
+
+	/**
+	 * Returns a set of the values held by this set and the additional values.
+	 * The additional values are sorted in place. The set is returned unchanged
+	 * when there are no additional values.
+	 */
+	public default CandidateSet union(long[] values) {
+		if (values.length == 0) {
+			return this;
+		}
+
+		Arrays.parallelSort(values);
+		return CandidateSetBuilder.merge(this, values);
+	}
+
+	/**
+	 * Creates a set of the values. The values are sorted in place.
+	 */
+	public static CandidateSet of(long... values) {
+		Arrays.parallelSort(values);
+		return CandidateSetBuilder.build(values);
+	}
+
+	public static CandidateSet empty() {
+		return ArrayCandidateSet.EMPTY;
+	}
+}
@@ -0,0 +1,161 @@
+package com.franglen.oracle.collection;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Supplier;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Builds candidate sets from values in ascending order. The values are read
+ * twice: once to measure their density and once to fill the chosen
+ * representation, so no intermediate copy is made.
+ * 
+ * @author matthew
+ */
+class CandidateSetBuilder {
+
+	/**
+	 * Below this average number of values per container the overhead of the
+	 * containers outweighs the saving over a plain array.
+	 */
+	static final int DENSE_VALUES_PER_CONTAINER = 16;
+
+	private CandidateSetBuilder() {
+	}
+
+	/**
+	 * Builds a set from sorted values, ignoring any repeats.
+	 */
+	static CandidateSet build(long[] sortedValues) {
+		return build(() -> distinct(Arrays.stream(sortedValues), LongStream.empty()));
+	}
+
+	/**
+	 * Builds a set from the values of an existing set and additional sorted
+	 * values, ignoring any repeats.
+	 */
+	static CandidateSet merge(CandidateSet set, long[] sortedValues) {
+		return build(() -> distinct(set.stream(), Arrays.stream(sortedValues)));
+	}
+
+	private static CandidateSet build(Supplier<LongStream> values) {
+		long size = 0, containers = 0, lastKey = 0;
+
+		for (PrimitiveIterator.OfLong iterator = values.get().iterator(); iterator.hasNext();) {
+			long key = CompressedCandidateSet.keyOf(iterator.nextLong());
+			if (size++ == 0 || key != lastKey) {
+				containers++;
+				lastKey = key;
+			}
+		}
+
+		if (containers > 0 && size >= DENSE_VALUES_PER_CONTAINER * containers) {
+			return buildCompressed(values.get(), size);
+		}
+		return new ArrayCandidateSet(values.get().toArray());
+	}
+
+	private static CandidateSet buildCompressed(LongStream values, long size) {
+		List<Long> keys = new ArrayList<>();
+		List<Container> containers = new ArrayList<>();
+		char[] buffer = new char[Container.CAPACITY];
+		long key = 0;
+		int count = 0;
+
+		for (PrimitiveIterator.OfLong iterator = values.iterator(); iterator.hasNext();) {
+			long value = iterator.nextLong(), valueKey = CompressedCandidateSet.keyOf(value);
+
+			if (count > 0 && valueKey != key) {
+				keys.add(key);
+				containers.add(Container.of(buffer, count));
+				count = 0;
+			}
+
+			key = valueKey;
+			buffer[count++] = CompressedCandidateSet.lowOf(value);
+		}
+		if (count > 0) {
+			keys.add(key);
+			containers.add(Container.of(buffer, count));
+		}
+
+		return new CompressedCandidateSet(keys.stream().mapToLong(Long::longValue).toArray(), containers.toArray(new Container[containers.size()]), size);
+	}
+
+	/**
+	 * Merges two ascending streams into one ascending stream without repeats.
+	 */
+	private static LongStream distinct(LongStream first, LongStream second) {
+		PrimitiveIterator.OfLong merged = new DistinctMerge(first.iterator(), second.iterator());
+		return StreamSupport.longStream(Spliterators.spliteratorUnknownSize(merged, Spliterator.ORDERED | Spliterator.SORTED | Spliterator.DISTINCT), false);
+	}
+
+	private static class DistinctMerge implements PrimitiveIterator.OfLong {
+
+		private final PrimitiveIterator.OfLong first, second;
+		private boolean hasFirst, hasSecond, started;
+		private long firstValue, secondValue, last;
+
+		DistinctMerge(PrimitiveIterator.OfLong first, PrimitiveIterator.OfLong second) {
+			this.first = first;
+			this.second = second;
+			advanceFirst();
+			advanceSecond();
+			skipRepeats();
+		}
+
+		@Override
+		public boolean hasNext() {
+			return hasFirst || hasSecond;
+		}
+
+		@Override
+		public long nextLong() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+
+			if (hasFirst && (!hasSecond || firstValue <= secondValue)) {
+				last = firstValue;
+				advanceFirst();
+			}
+			else {
+				last = secondValue;
+				advanceSecond();
+			}
+
+			started = true;
+			skipRepeats();
+			return last;
+		}
+
+		private void skipRepeats() {
+			while (started && hasFirst && firstValue == last) {
+				advanceFirst();
+			}
+			while (started && hasSecond && secondValue == last) {
+				advanceSecond();
+			}
+		}
+
+		private void advanceFirst() {
+			hasFirst = first.hasNext();
+			if (hasFirst) {
+				firstValue = first.nextLong();
+			}
+		}
+
+		private void advanceSecond() {
+			hasSecond = second.hasNext();
+			if (hasSecond) {
+				secondValue = second.nextLong();
+			}
+		}
+	}
+}
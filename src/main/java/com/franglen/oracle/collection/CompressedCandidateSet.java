@@ -0,0 +1,117 @@
+package com.franglen.oracle.collection;
+
+import java.util.Arrays;
+import java.util.function.LongPredicate;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+/**
+ * Holds dense candidates in containers. Each container holds the low 16 bits
+ * of the values which share the remaining high bits, which form its key.
+ * 
+ * @author matthew
+ */
+class CompressedCandidateSet implements CandidateSet {
+
+	private static final int LOW_BITS = 16;
+	private static final long LOW_MASK = (1L << LOW_BITS) - 1;
+
+	/**
+	 * Covers the key and the reference held for each container.
+	 */
+	private static final long CONTAINER_OVERHEAD_BYTES = Long.BYTES + Long.BYTES;
+
+	private final long[] keys;
+	private final Container[] containers;
+	private final long size;
+
+	/**
+	 * The keys must be ascending and every container must hold a value.
+	 */
+	CompressedCandidateSet(long[] keys, Container[] containers, long size) {
+		this.keys = keys;
+		this.containers = containers;
+		this.size = size;
+	}
+
+	static long keyOf(long value) {
+		return value >> LOW_BITS;
+	}
+
+	static char lowOf(long value) {
+		return (char) (value & LOW_MASK);
+	}
+
+	@Override
+	public long size() {
+		return size;
+	}
+
+	@Override
+	public boolean contains(long value) {
+		int index = Arrays.binarySearch(keys, keyOf(value));
+		return index >= 0 && containers[index].contains(lowOf(value));
+	}
+
+	@Override
+	public LongStream stream() {
+		return IntStream.range(0, containers.length).mapToObj(this::stream).flatMapToLong((LongStream values) -> values);
+	}
+
+	/**
+	 * Each container is filtered independently, so the containers are shared
+	 * between the workers. If too few values remain for the containers to
+	 * save memory, the values are returned as an array instead.
+	 */
+	@Override
+	public CandidateSet filter(LongPredicate predicate) {
+		Container[] filtered = IntStream.range(0, containers.length).parallel().mapToObj((int index) -> filter(index, predicate)).toArray(Container[]::new);
+		int[] retained = IntStream.range(0, filtered.length).filter((int index) -> filtered[index] != null).toArray();
+
+		long[] retainedKeys = Arrays.stream(retained).mapToLong((int index) -> keys[index]).toArray();
+		Container[] retainedContainers = Arrays.stream(retained).mapToObj((int index) -> filtered[index]).toArray(Container[]::new);
+		long retainedSize = Arrays.stream(retainedContainers).mapToLong(Container::cardinality).sum();
+
+		CompressedCandidateSet retainedSet = new CompressedCandidateSet(retainedKeys, retainedContainers, retainedSize);
+		if (retainedSize < (long) CandidateSetBuilder.DENSE_VALUES_PER_CONTAINER * retainedContainers.length) {
+			return new ArrayCandidateSet(retainedSet.stream().toArray());
+		}
+		return retainedSet;
+	}
+
+	@Override
+	public long sizeInBytes() {
+		return Arrays.stream(containers).mapToLong((Container container) -> container.sizeInBytes() + CONTAINER_OVERHEAD_BYTES).sum();
+	}
+
+	private LongStream stream(int index) {
+		long base = keys[index] << LOW_BITS;
+		char[] values = containers[index].toArray();
+
+		return IntStream.range(0, values.length).mapToLong((int value) -> base | values[value]);
+	}
+
+	/**
+	 * Returns the container of the values which pass the predicate, or null if
+	 * none pass.
+	 */
+	private Container filter(int index, LongPredicate predicate) {
+		long base = keys[index] << LOW_BITS;
+		char[] values = containers[index].toArray();
+		int count = 0;
+
+		for (char value : values) {
+			if (predicate.test(base | value)) {
+				values[count++] = value;
+			}
+		}
+
+		if (count == 0) {
+			return null;
+		}
+		if (count == values.length) {
+			return containers[index];
+		}
+		return Container.of(values, count);
+	}
+}
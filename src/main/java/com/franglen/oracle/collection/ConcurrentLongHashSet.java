@@ -0,0 +1,140 @@
+package com.franglen.oracle.collection;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.LongStream;
+
+/**
+ * A fixed capacity open addressing set of primitive longs which can be added to
+ * by many threads without locking.
+ * 
+ * Slots are claimed with a compare and set, so a value is only ever reported
+ * as added by the thread that placed it. The set does not grow, so it must be
+ * sized for the number of values that will be added to it.
+ * 
+ * @author matthew
+ */
+public class ConcurrentLongHashSet {
+
+	/**
+	 * Marks an unused slot. The set tracks this value separately.
+	 */
+	private static final long EMPTY = 0;
+
+	private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+	private final AtomicLongArray slots;
+	private final int mask;
+	private final AtomicBoolean containsEmpty;
+	private final AtomicInteger size;
+
+	/**
+	 * Creates a set that can hold at least the expected number of values.
+	 */
+	public ConcurrentLongHashSet(int expectedSize) {
+		if (expectedSize < 0) {
+			throw new IllegalArgumentException("Expected size must not be negative: " + expectedSize);
+		}
+
+		int capacity = capacityFor(expectedSize);
+		slots = new AtomicLongArray(capacity);
+		mask = capacity - 1;
+		containsEmpty = new AtomicBoolean();
+		size = new AtomicInteger();
+	}
+
+	/**
+	 * Adds the value, returning true if this call added it and false if it was
+	 * already present.
+	 */
+	public boolean add(long value) {
+		if (value == EMPTY) {
+			return addEmpty();
+		}
+
+		for (int index = indexOf(value), probes = 0; probes <= mask; index = (index + 1) & mask, probes++) {
+			long current = slots.get(index);
+
+			if (current == EMPTY) {
+				if (slots.compareAndSet(index, EMPTY, value)) {
+					size.incrementAndGet();
+					return true;
+				}
+				current = slots.get(index);
+			}
+			if (current == value) {
+				return false;
+			}
+		}
+
+		throw new IllegalStateException("Set is full, capacity: " + slots.length());
+	}
+
+	public boolean contains(long value) {
+		if (value == EMPTY) {
+			return containsEmpty.get();
+		}
+
+		for (int index = indexOf(value), probes = 0; probes <= mask; index = (index + 1) & mask, probes++) {
+			long current = slots.get(index);
+
+			if (current == value) {
+				return true;
+			}
+			if (current == EMPTY) {
+				return false;
+			}
+		}
+
+		return false;
+	}
+
+	public int size() {
+		return size.get();
+	}
+
+	/**
+	 * Streams the values in the set. The values are in no particular order.
+	 */
+	public LongStream stream() {
+		LongStream values = LongStream.range(0, slots.length()).map((long index) -> slots.get((int) index)).filter((long value) -> value != EMPTY);
+
+		if (containsEmpty.get()) {
+			return LongStream.concat(LongStream.of(EMPTY), values);
+		}
+		return values;
+	}
+
+	private boolean addEmpty() {
+		if (containsEmpty.compareAndSet(false, true)) {
+			size.incrementAndGet();
+			return true;
+		}
+		return false;
+	}
+
+	private int indexOf(long value) {
+		return (int) mix(value) & mask;
+	}
+
+	/**
+	 * The finalization step of MurmurHash3. Internal states are sequential when
+	 * scanning a range so the bits must be spread before masking.
+	 */
+	private static long mix(long value) {
+		value = (value ^ (value >>> 33)) * 0xff51afd7ed558ccdL;
+		value = (value ^ (value >>> 33)) * 0xc4ceb9fe1a85ec53L;
+		return value ^ (value >>> 33);
+	}
+
+	/**
+	 * Keeps the load factor at or below one half.
+	 */
+	private static int capacityFor(int expectedSize) {
+		if (expectedSize >= MAXIMUM_CAPACITY / 2) {
+			return MAXIMUM_CAPACITY;
+		}
+		return Math.max(2, Integer.highestOneBit(Math.max(1, expectedSize * 2 - 1)) << 1);
+	}
+}
@@ -0,0 +1,57 @@
+package com.franglen.oracle.collection;
+
+/**
+ * Holds a set of 16 bit values for a compressed candidate set.
+ * 
+ * @author matthew
+ */
+abstract class Container {
+
+	static final int CAPACITY = 1 << 16;
+
+	/**
+	 * An array container larger than this would be bigger than a bitmap.
+	 */
+	static final int MAXIMUM_ARRAY_SIZE = 4096;
+
+	abstract int cardinality();
+
+	abstract boolean contains(char value);
+
+	/**
+	 * Returns a new array of the values in ascending order.
+	 */
+	abstract char[] toArray();
+
+	abstract long sizeInBytes();
+
+	/**
+	 * Creates the smallest container for the first count values, which must
+	 * be ascending and distinct.
+	 */
+	static Container of(char[] values, int count) {
+		int runs = countRuns(values, count);
+		long arrayBytes = ArrayContainer.sizeInBytes(count);
+		long runBytes = RunContainer.sizeInBytes(runs);
+
+		if (runBytes < arrayBytes && runBytes < BitmapContainer.SIZE_IN_BYTES) {
+			return RunContainer.of(values, count, runs);
+		}
+		if (count <= MAXIMUM_ARRAY_SIZE) {
+			return ArrayContainer.of(values, count);
+		}
+		return BitmapContainer.of(values, count);
+	}
+
+	private static int countRuns(char[] values, int count) {
+		int runs = count == 0 ? 0 : 1;
+
+		for (int i = 1; i < count; i++) {
+			if (values[i] != values[i - 1] + 1) {
+				runs++;
+			}
+		}
+
+		return runs;
+	}
+}
@@ -0,0 +1,45 @@
+package com.franglen.oracle.collection;
+
+import java.util.Arrays;
+
+/**
+ * A growable list of primitive longs. It is not thread safe, so each worker
+ * should fill its own list.
+ * 
+ * @author matthew
+ */
+public class LongList {
+
+	private static final int INITIAL_CAPACITY = 16;
+
+	private long[] values;
+	private int size;
+
+	public LongList() {
+		values = new long[INITIAL_CAPACITY];
+		size = 0;
+	}
+
+	public void add(long value) {
+		if (size == values.length) {
+			values = Arrays.copyOf(values, size * 2);
+		}
+		values[size++] = value;
+	}
+
+	public void addAll(LongList other) {
+		if (size + other.size > values.length) {
+			values = Arrays.copyOf(values, Math.max(size + other.size, size * 2));
+		}
+		System.arraycopy(other.values, 0, values, size, other.size);
+		size += other.size;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public long[] toArray() {
+		return Arrays.copyOf(values, size);
+	}
+}
@@ -0,0 +1,77 @@
+package com.franglen.oracle.collection;
+
+import java.util.Arrays;
+
+/**
+ * Holds values as runs of consecutive values. Each run is stored as its start
+ * and the number of values after the start, so a full run fits in a char.
+ * 
+ * @author matthew
+ */
+class RunContainer extends Container {
+
+	private final char[] starts;
+	private final char[] extents;
+	private final int cardinality;
+
+	private RunContainer(char[] starts, char[] extents, int cardinality) {
+		this.starts = starts;
+		this.extents = extents;
+		this.cardinality = cardinality;
+	}
+
+	static RunContainer of(char[] values, int count, int runs) {
+		char[] starts = new char[runs], extents = new char[runs];
+		int run = -1;
+
+		for (int i = 0; i < count; i++) {
+			if (run >= 0 && values[i] == starts[run] + extents[run] + 1) {
+				extents[run]++;
+			}
+			else {
+				starts[++run] = values[i];
+			}
+		}
+
+		return new RunContainer(starts, extents, count);
+	}
+
+	static long sizeInBytes(int runs) {
+		return (long) runs * Character.BYTES * 2;
+	}
+
+	@Override
+	int cardinality() {
+		return cardinality;
+	}
+
+	@Override
+	boolean contains(char value) {
+		int index = Arrays.binarySearch(starts, value);
+		if (index >= 0) {
+			return true;
+		}
+
+		int run = -index - 2;
+		return run >= 0 && value - starts[run] <= extents[run];
+	}
+
+	@Override
+	char[] toArray() {
+		char[] values = new char[cardinality];
+		int count = 0;
+
+		for (int run = 0; run < starts.length; run++) {
+			for (int offset = 0; offset <= extents[run]; offset++) {
+				values[count++] = (char) (starts[run] + offset);
+			}
+		}
+
+		return values;
+	}
+
+	@Override
+	long sizeInBytes() {
+		return sizeInBytes(starts.length);
+	}
+}
@@ -0,0 +1,46 @@
+package com.franglen.oracle.filter;
+
+import java.util.Random;
+
+
+/**
+ * Matches a nextDouble() result that was observed to within a tolerance, such as
+ * one which was rounded before being recorded.
+ * 
+ * @author matthew
+ *
+ */
+public class ApproximateDoubleFilter implements ScoredFilter {
+
+	private final double result;
+	private final double tolerance;
+
+	public ApproximateDoubleFilter(double result, double tolerance) {
+		if (!(tolerance >= 0)) {
+			throw new IllegalArgumentException("Tolerance must not be negative: " + tolerance);
+		}
+
+		this.result = result;
+		this.tolerance = tolerance;
+	}
+
+	@Override
+	public double score(Random value) {
+		return Math.abs(value.nextDouble() - result) <= tolerance ? 1 : 0;
+	}
+
+	@Override
+	public boolean equals(Object other) {
+		if (!(other instanceof ApproximateDoubleFilter)) {
+			return false;
+		}
+
+		ApproximateDoubleFilter filter = (ApproximateDoubleFilter) other;
+		return Double.compare(result, filter.result) == 0 && Double.compare(tolerance, filter.tolerance) == 0;
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * Double.hashCode(result) + Double.hashCode(tolerance);
+	}
+}
@@ -0,0 +1,46 @@
+package com.franglen.oracle.filter;
+
+import java.util.Random;
+
+
+/**
+ * Matches a nextFloat() result that was observed to within a tolerance, such as
+ * one which was rounded before being recorded.
+ * 
+ * @author matthew
+ *
+ */
+public class ApproximateFloatFilter implements ScoredFilter {
+
+	private final float result;
+	private final float tolerance;
+
+	public ApproximateFloatFilter(float result, float tolerance) {
+		if (!(tolerance >= 0)) {
+			throw new IllegalArgumentException("Tolerance must not be negative: " + tolerance);
+		}
+
+		this.result = result;
+		this.tolerance = tolerance;
+	}
+
+	@Override
+	public double score(Random value) {
+		return Math.abs(value.nextFloat() - result) <= tolerance ? 1 : 0;
+	}
+
+	@Override
+	public boolean equals(Object other) {
+		if (!(other instanceof ApproximateFloatFilter)) {
+			return false;
+		}
+
+		ApproximateFloatFilter filter = (ApproximateFloatFilter) other;
+		return Float.compare(result, filter.result) == 0 && Float.compare(tolerance, filter.tolerance) == 0;
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * Float.hashCode(result) + Float.hashCode(tolerance);
+	}
+}
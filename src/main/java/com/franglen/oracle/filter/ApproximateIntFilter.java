@@ -0,0 +1,46 @@
+package com.franglen.oracle.filter;
+
+import java.util.Random;
+
+
+/**
+ * Matches a nextInt() result that was observed to within a tolerance, such as
+ * one which was rounded before being recorded.
+ * 
+ * @author matthew
+ *
+ */
+public class ApproximateIntFilter implements ScoredFilter {
+
+	private final int result;
+	private final long tolerance;
+
+	public ApproximateIntFilter(int result, long tolerance) {
+		if (!(tolerance >= 0)) {
+			throw new IllegalArgumentException("Tolerance must not be negative: " + tolerance);
+		}
+
+		this.result = result;
+		this.tolerance = tolerance;
+	}
+
+	@Override
+	public double score(Random value) {
+		return Math.abs((long) value.nextInt() - result) <= tolerance ? 1 : 0;
+	}
+
+	@Override
+	public boolean equals(Object other) {
+		if (!(other instanceof ApproximateIntFilter)) {
+			return false;
+		}
+
+		ApproximateIntFilter filter = (ApproximateIntFilter) other;
+		return result == filter.result && tolerance == filter.tolerance;
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * Integer.hashCode(result) + Long.hashCode(tolerance);
+	}
+}
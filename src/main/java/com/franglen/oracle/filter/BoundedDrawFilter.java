@@ -0,0 +1,67 @@
+package com.franglen.oracle.filter;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import com.franglen.oracle.model.ModelRandom;
+
+/**
+ * Accepts a sequence of calls to nextInt(bound). Each call may consume more
+ * than one value from the generator when a draw is rejected, so this cannot
+ * be expressed as a fixed sequence of filters.
+ * 
+ * Evaluation stops at the first draw which differs.
+ * 
+ * @author matthew
+ */
+public class BoundedDrawFilter implements Filter {
+
+	private final int[] bounds;
+	private final int[] draws;
+
+	public BoundedDrawFilter(int[] bounds, int[] draws) {
+		if (bounds.length != draws.length) {
+			throw new IllegalArgumentException("Expected a draw for each of " + bounds.length + " bounds, got " + draws.length);
+		}
+		for (int i = 0; i < bounds.length; i++) {
+			if (bounds[i] <= 0) {
+				throw new IllegalArgumentException("Bound must be positive: " + bounds[i]);
+			}
+			if (draws[i] < 0 || draws[i] >= bounds[i]) {
+				throw new IllegalArgumentException("Draw " + draws[i] + " is outside of bound " + bounds[i]);
+			}
+		}
+
+		this.bounds = bounds.clone();
+		this.draws = draws.clone();
+	}
+
+	@Override
+	public boolean accepts(Random value) {
+		if (value instanceof ModelRandom) {
+			return ((ModelRandom) value).nextIntsMatch(bounds, draws);
+		}
+
+		for (int i = 0; i < bounds.length; i++) {
+			if (value.nextInt(bounds[i]) != draws[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public boolean equals(Object other) {
+		if (!(other instanceof BoundedDrawFilter)) {
+			return false;
+		}
+
+		BoundedDrawFilter filter = (BoundedDrawFilter) other;
+		return Arrays.equals(bounds, filter.bounds) && Arrays.equals(draws, filter.draws);
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * Arrays.hashCode(bounds) + Arrays.hashCode(draws);
+	}
+}
@@ -15,8 +15,22 @@ public class DoubleFilter implements Filter {
 		this.result = result;
 	}
 
+	public double getResult() {
+		return result;
+	}
+
 	@Override
 	public boolean accepts(Random value) {
 		return value.nextDouble() == result;
 	}
+
+	@Override
+	public boolean equals(Object other) {
+		return other instanceof DoubleFilter && Double.compare(result, ((DoubleFilter) other).result) == 0;
+	}
+
+	@Override
+	public int hashCode() {
+		return Double.hashCode(result);
+	}
 }
@@ -0,0 +1,46 @@
+package com.franglen.oracle.filter;
+
+import java.util.Random;
+
+import com.franglen.oracle.model.GaussianObservation;
+import com.franglen.oracle.model.ModelRandom;
+
+/**
+ * Accepts a result of nextGaussian(). The call draws pairs of doubles until
+ * one is accepted, and caches the second value of the pair for the next call.
+ * 
+ * A Random object from a model checks most pairs against cheap bounds before
+ * computing the result.
+ * 
+ * @author matthew
+ */
+public class GaussianFilter implements Filter {
+
+	private final GaussianObservation observation;
+
+	public GaussianFilter(double result) {
+		observation = new GaussianObservation(result);
+	}
+
+	public double getResult() {
+		return observation.getResult();
+	}
+
+	@Override
+	public boolean accepts(Random value) {
+		if (value instanceof ModelRandom) {
+			return ((ModelRandom) value).nextGaussianMatches(observation);
+		}
+		return value.nextGaussian() == observation.getResult();
+	}
+
+	@Override
+	public boolean equals(Object other) {
+		return other instanceof GaussianFilter && Double.compare(getResult(), ((GaussianFilter) other).getResult()) == 0;
+	}
+
+	@Override
+	public int hashCode() {
+		return Double.hashCode(getResult());
+	}
+}
@@ -15,8 +15,22 @@ public class IntFilter implements Filter {
 		this.result = result;
 	}
 
+	public int getResult() {
+		return result;
+	}
+
 	@Override
 	public boolean accepts(Random value) {
 		return value.nextInt() == result;
 	}
+
+	@Override
+	public boolean equals(Object other) {
+		return other instanceof IntFilter && result == ((IntFilter) other).result;
+	}
+
+	@Override
+	public int hashCode() {
+		return Integer.hashCode(result);
+	}
 }
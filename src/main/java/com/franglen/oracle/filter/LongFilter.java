@@ -0,0 +1,36 @@
+package com.franglen.oracle.filter;
+
+import java.util.Random;
+
+
+/**
+ * @author matthew
+ *
+ */
+public class LongFilter implements Filter {
+
+	private final long result;
+
+	public LongFilter(long result) {
+		this.result = result;
+	}
+
+	public long getResult() {
+		return result;
+	}
+
+	@Override
+	public boolean accepts(Random value) {
+		return value.nextLong() == result;
+	}
+
+	@Override
+	public boolean equals(Object other) {
+		return other instanceof LongFilter && result == ((LongFilter) other).result;
+	}
+
+	@Override
+	public int hashCode() {
+		return Long.hashCode(result);
+	}
+}
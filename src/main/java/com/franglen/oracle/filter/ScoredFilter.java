@@ -0,0 +1,28 @@
+package com.franglen.oracle.filter;
+
+import java.util.Random;
+
+/**
+ * A scored filter rates how closely the next value matches an observation
+ * which may be imprecise or wrong.
+ * 
+ * @author matthew
+ *
+ */
+public interface ScoredFilter extends Filter {
+
+	/**
+	 * Returns a score between zero (no match) and one (a match) for the value
+	 * generated on the next call.
+	 */
+	public double score(Random value);
+
+	/**
+	 * The filter accepts the random object if the next call generates a value
+	 * which scores above zero.
+	 */
+	@Override
+	public default boolean accepts(Random value) {
+		return score(value) > 0;
+	}
+}
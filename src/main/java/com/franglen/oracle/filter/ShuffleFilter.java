@@ -0,0 +1,64 @@
+package com.franglen.oracle.filter;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Accepts a call to Collections.shuffle(list, random) which rearranged the
+ * original list into the shuffled list.
+ * 
+ * The shuffle swaps each position from the end of the list with one chosen by
+ * nextInt(position + 1). Replaying the swaps recovers every draw, so the
+ * elements of the original list must be distinct.
+ * 
+ * @author matthew
+ */
+public class ShuffleFilter extends BoundedDrawFilter {
+
+	public ShuffleFilter(List<?> original, List<?> shuffled) {
+		super(bounds(original.size()), draws(original, shuffled));
+	}
+
+	private static int[] bounds(int size) {
+		int[] bounds = new int[Math.max(size - 1, 0)];
+
+		for (int i = 0; i < bounds.length; i++) {
+			bounds[i] = size - i;
+		}
+		return bounds;
+	}
+
+	private static int[] draws(List<?> original, List<?> shuffled) {
+		if (original.size() != shuffled.size()) {
+			throw new IllegalArgumentException("Shuffled list has " + shuffled.size() + " elements, expected " + original.size());
+		}
+		if (new HashSet<>(original).size() != original.size()) {
+			throw new IllegalArgumentException("Original list has duplicate elements");
+		}
+
+		List<Object> current = new ArrayList<>(original);
+		int[] draws = new int[Math.max(current.size() - 1, 0)];
+
+		for (int i = 0; i < draws.length; i++) {
+			int position = current.size() - 1 - i;
+			Object expected = shuffled.get(position);
+			int drawn = current.subList(0, position + 1).indexOf(expected);
+
+			if (drawn < 0) {
+				throw new IllegalArgumentException("Shuffled list is not a permutation of the original: " + expected);
+			}
+
+			draws[i] = drawn;
+			current.set(drawn, current.get(position));
+			current.set(position, expected);
+		}
+
+		if (!current.isEmpty() && !Objects.equals(current.get(0), shuffled.get(0))) {
+			throw new IllegalArgumentException("Shuffled list is not a permutation of the original: " + shuffled.get(0));
+		}
+
+		return draws;
+	}
+}
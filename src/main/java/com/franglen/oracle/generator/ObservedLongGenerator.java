@@ -0,0 +1,33 @@
+package com.franglen.oracle.generator;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+
+import com.franglen.oracle.model.PrngModel;
+
+/**
+ * Generates the seeds of every state which would produce an observed
+ * nextLong() output. The states are recovered from the output by the model
+ * instead of being found by scanning.
+ * 
+ * @author matthew
+ */
+public class ObservedLongGenerator implements Generator {
+
+	private final long[] seeds;
+	private final AtomicLong position;
+
+	public ObservedLongGenerator(PrngModel model, long value) {
+		seeds = model.statesBeforeLong(value).map(model::toSeed).toArray();
+		position = new AtomicLong();
+	}
+
+	@Override
+	public LongStream stream(long values) {
+		long start = position.getAndUpdate((long current) -> Math.min(current + values, seeds.length));
+		long end = Math.min(start + values, seeds.length);
+
+		return Arrays.stream(seeds, (int) start, (int) end);
+	}
+}
@@ -0,0 +1,63 @@
+package com.franglen.oracle.model;
+
+/**
+ * An observed result of nextGaussian() from java.util.Random, which uses the
+ * polar method. A pair of values v1 and v2 is drawn until s = v1^2 + v2^2 lies
+ * in (0, 1), and the result g is v1 * sqrt(-2 ln(s) / s).
+ * 
+ * This holds bounds which let a pair be rejected without computing the log or
+ * the square root:
+ * 
+ * - the result has the sign of v1
+ * - since v1^2 <= s <= exp(-g^2 / 2), |v1| <= exp(-g^2 / 4)
+ * - since 1 - s <= -ln(s) <= (1 - s) / s, g^2 s lies between 2 v1^2 (1 - s) and
+ * 2 v1^2 (1 - s) / s
+ * 
+ * The bounds are widened slightly so that rounding never rejects a pair
+ * which produces the result.
+ * 
+ * @author matthew
+ */
+public final class GaussianObservation {
+
+	private static final double SLACK = 1e-9;
+
+	private final double result;
+	private final double squared;
+	private final double firstLimit;
+
+	public GaussianObservation(double result) {
+		this.result = result;
+		squared = result * result;
+		firstLimit = StrictMath.exp(-squared / 4) * (1 + SLACK);
+	}
+
+	public double getResult() {
+		return result;
+	}
+
+	/**
+	 * Returns false if the first value of an accepted pair cannot produce the
+	 * result.
+	 */
+	public boolean mayStartWith(double v1) {
+		if (result == 0) {
+			return v1 == 0;
+		}
+		return (v1 < 0) == (result < 0) && v1 != 0 && Math.abs(v1) <= firstLimit;
+	}
+
+	/**
+	 * Returns false if an accepted pair cannot produce the result. The first
+	 * value must already have passed mayStartWith.
+	 */
+	public boolean mayProduce(double v1, double s) {
+		if (result == 0) {
+			return true;
+		}
+
+		double lower = 2 * v1 * v1 * (1 - s), upper = lower / s;
+		double target = squared * s;
+		return target >= lower * (1 - SLACK) && target <= upper * (1 + SLACK);
+	}
+}
@@ -0,0 +1,215 @@
+package com.franglen.oracle.model;
+
+import java.util.stream.LongStream;
+
+/**
+ * Models java.util.Random, which is a 48 bit linear congruential generator.
+ * 
+ * This also models Math.random(), which returns nextDouble() from a shared
+ * java.util.Random that was created without a seed.
+ * 
+ * @author matthew
+ */
+public class JavaRandomModel implements PrngModel {
+
+	/**
+	 * Copied from multiplier constant in java.util.Random
+	 */
+	public static final long MULTIPLIER = 0x5DEECE66DL;
+	/**
+	 * Copied from addend constant in java.util.Random
+	 */
+	public static final long ADDEND = 0xBL;
+	/**
+	 * Copied from mask constant in java.util.Random
+	 */
+	public static final long MASK = (1L << 48) - 1;
+	/**
+	 * The inverse of the multiplier modulo 2^48, used to step backwards.
+	 */
+	public static final long MULTIPLIER_INVERSE = 0xDFE05BCB1365L;
+
+	/**
+	 * The number of low bits of a state that do not appear in a 32 bit output.
+	 */
+	private static final int HIDDEN_INT_BITS = 48 - 32;
+	/**
+	 * The number of low bits of a state that do not appear in the first 26 bit
+	 * output of nextDouble().
+	 */
+	private static final int HIDDEN_DOUBLE_BITS = 48 - 26;
+	/**
+	 * Copied from DOUBLE_UNIT in java.util.Random
+	 */
+	private static final double DOUBLE_UNIT = 0x1.0p-53;
+
+	public static final JavaRandomModel INSTANCE = new JavaRandomModel();
+
+	@Override
+	public long toState(long seed) {
+		return (seed ^ MULTIPLIER) & MASK;
+	}
+
+	@Override
+	public long toSeed(long state) {
+		return (state ^ MULTIPLIER) & MASK;
+	}
+
+	@Override
+	public ModelRandom random(long state) {
+		return new LcgRandom(state);
+	}
+
+	/**
+	 * nextLong() combines two 32 bit outputs, so each state is found by trying
+	 * the hidden bits of the first.
+	 */
+	@Override
+	public LongStream statesBeforeLong(long value) {
+		int low = (int) value;
+		long high = ((value >>> 32) + (low < 0 ? 1 : 0)) & 0xFFFFFFFFL;
+
+		return LongStream.range(0, 1L << HIDDEN_INT_BITS)
+				.map((long hidden) -> (high << HIDDEN_INT_BITS) | hidden)
+				.filter((long first) -> (int) (next(first) >>> HIDDEN_INT_BITS) == low)
+				.map(JavaRandomModel::previous);
+	}
+
+	/**
+	 * Streams every internal state which would generate the value on the next
+	 * call to nextDouble(). This recovers the state behind Math.random().
+	 */
+	public LongStream statesBeforeDouble(double value) {
+		long bits = (long) (value * (1L << 53));
+		long high = bits >>> 27, low = bits & ((1L << 27) - 1);
+
+		return LongStream.range(0, 1L << HIDDEN_DOUBLE_BITS)
+				.map((long hidden) -> (high << HIDDEN_DOUBLE_BITS) | hidden)
+				.filter((long first) -> next(first) >>> (48 - 27) == low)
+				.map(JavaRandomModel::previous);
+	}
+
+	public static long next(long state) {
+		return (state * MULTIPLIER + ADDEND) & MASK;
+	}
+
+	public static long previous(long state) {
+		return ((state - ADDEND) * MULTIPLIER_INVERSE) & MASK;
+	}
+
+	/**
+	 * Every instance models the same generator.
+	 */
+	@Override
+	public boolean equals(Object other) {
+		return other instanceof JavaRandomModel;
+	}
+
+	@Override
+	public int hashCode() {
+		return JavaRandomModel.class.hashCode();
+	}
+
+	/**
+	 * Steps a plain field rather than the AtomicLong that java.util.Random
+	 * updates with a compare and set.
+	 */
+	private static final class LcgRandom extends ModelRandom {
+
+		private static final long serialVersionUID = 1L;
+
+		LcgRandom(long state) {
+			super(state);
+		}
+
+		@Override
+		protected int next(int bits) {
+			state = JavaRandomModel.next(state);
+			return (int) (state >>> (48 - bits));
+		}
+
+		/**
+		 * Steps a local copy of the state, following nextInt(bound) in
+		 * java.util.Random including the retry when a draw is rejected.
+		 */
+		@Override
+		public boolean nextIntsMatch(int[] bounds, int[] expected) {
+			long current = state;
+
+			try {
+				for (int i = 0; i < bounds.length; i++) {
+					int bound = bounds[i], result;
+					if (bound <= 0) {
+						throw new IllegalArgumentException("bound must be positive");
+					}
+
+					current = JavaRandomModel.next(current);
+					if ((bound & -bound) == bound) {
+						result = (int) ((bound * (current >>> 17)) >> 31);
+					}
+					else {
+						int bits = (int) (current >>> 17);
+						result = bits % bound;
+						while (bits - result + (bound - 1) < 0) {
+							current = JavaRandomModel.next(current);
+							bits = (int) (current >>> 17);
+							result = bits % bound;
+						}
+					}
+
+					if (result != expected[i]) {
+						return false;
+					}
+				}
+				return true;
+			}
+			finally {
+				state = current;
+			}
+		}
+
+		/**
+		 * Follows nextGaussian(), stepping a local copy of the state for each
+		 * pair. Each accepted pair is checked against the cheap bounds of the
+		 * observation before the log and square root are computed.
+		 */
+		@Override
+		public boolean nextGaussianMatches(GaussianObservation observation) {
+			if (haveNextNextGaussian) {
+				haveNextNextGaussian = false;
+				return nextNextGaussian == observation.getResult();
+			}
+
+			long current = state;
+			double v1, v2, s;
+			try {
+				do {
+					current = JavaRandomModel.next(current);
+					long high = current >>> 22;
+					current = JavaRandomModel.next(current);
+					v1 = 2 * (((high << 27) + (current >>> 21)) * DOUBLE_UNIT) - 1;
+
+					current = JavaRandomModel.next(current);
+					high = current >>> 22;
+					current = JavaRandomModel.next(current);
+					v2 = 2 * (((high << 27) + (current >>> 21)) * DOUBLE_UNIT) - 1;
+
+					s = v1 * v1 + v2 * v2;
+				}
+				while (s >= 1 || s == 0);
+			}
+			finally {
+				state = current;
+			}
+
+			if (!observation.mayStartWith(v1) || !observation.mayProduce(v1, s)) {
+				return false;
+			}
+
+			double multiplier = StrictMath.sqrt(-2 * StrictMath.log(s) / s);
+			nextNextGaussian = v2 * multiplier;
+			haveNextNextGaussian = true;
+			return v1 * multiplier == observation.getResult();
+		}
+	}
+}
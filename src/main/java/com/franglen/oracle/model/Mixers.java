@@ -0,0 +1,101 @@
+package com.franglen.oracle.model;
+
+/**
+ * The output mixers used by the SplitMix family of generators, along with
+ * their inverses.
+ * 
+ * Every step of a 64 bit mixer is a bijection, so the internal state can be
+ * recovered from a single 64 bit output.
+ * 
+ * @author matthew
+ */
+final class Mixers {
+
+	/**
+	 * Copied from GOLDEN_GAMMA constant in java.util.SplittableRandom
+	 */
+	static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+	private static final long MURMUR_FIRST = 0xff51afd7ed558ccdL;
+	private static final long MURMUR_SECOND = 0xc4ceb9fe1a85ec53L;
+	private static final long STAFFORD_FIRST = 0xbf58476d1ce4e5b9L;
+	private static final long STAFFORD_SECOND = 0x94d049bb133111ebL;
+
+	private static final long MURMUR_FIRST_INVERSE = inverse(MURMUR_FIRST);
+	private static final long MURMUR_SECOND_INVERSE = inverse(MURMUR_SECOND);
+	private static final long STAFFORD_FIRST_INVERSE = inverse(STAFFORD_FIRST);
+	private static final long STAFFORD_SECOND_INVERSE = inverse(STAFFORD_SECOND);
+
+	private Mixers() {
+	}
+
+	/**
+	 * Copied from mixMurmur64() in jdk.internal.util.random.RandomSupport
+	 */
+	static long murmur64(long z) {
+		z = (z ^ (z >>> 33)) * MURMUR_FIRST;
+		z = (z ^ (z >>> 33)) * MURMUR_SECOND;
+		return z ^ (z >>> 33);
+	}
+
+	static long unmurmur64(long z) {
+		z = unshift(z, 33) * MURMUR_SECOND_INVERSE;
+		z = unshift(z, 33) * MURMUR_FIRST_INVERSE;
+		return unshift(z, 33);
+	}
+
+	/**
+	 * Copied from mix32() in java.util.concurrent.ThreadLocalRandom
+	 */
+	static int murmur32(long z) {
+		z = (z ^ (z >>> 33)) * MURMUR_FIRST;
+		return (int) (((z ^ (z >>> 33)) * MURMUR_SECOND) >>> 32);
+	}
+
+	/**
+	 * Copied from mix64() in java.util.SplittableRandom
+	 */
+	static long stafford64(long z) {
+		z = (z ^ (z >>> 30)) * STAFFORD_FIRST;
+		z = (z ^ (z >>> 27)) * STAFFORD_SECOND;
+		return z ^ (z >>> 31);
+	}
+
+	static long unstafford64(long z) {
+		z = unshift(z, 31) * STAFFORD_SECOND_INVERSE;
+		z = unshift(z, 27) * STAFFORD_FIRST_INVERSE;
+		return unshift(z, 30);
+	}
+
+	/**
+	 * Copied from mix32() in java.util.SplittableRandom
+	 */
+	static int stafford32(long z) {
+		z = (z ^ (z >>> 33)) * 0x62a9d9ed799705f5L;
+		return (int) (((z ^ (z >>> 28)) * 0xcb24d0a5c88c35b3L) >>> 32);
+	}
+
+	/**
+	 * Reverses z ^ (z >>> shift). Each pass recovers another shift bits of the
+	 * original value, starting from the most significant.
+	 */
+	private static long unshift(long value, int shift) {
+		long result = value;
+		for (int recovered = shift; recovered < Long.SIZE; recovered += shift) {
+			result = value ^ (result >>> shift);
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the multiplicative inverse of an odd value modulo 2^64. Each
+	 * Newton iteration doubles the number of correct bits.
+	 */
+	private static long inverse(long value) {
+		long result = value;
+		for (int i = 0; i < 5; i++) {
+			result *= 2 - value * result;
+		}
+		return result;
+	}
+}
@@ -0,0 +1,111 @@
+package com.franglen.oracle.model;
+
+import java.util.Random;
+
+/**
+ * A Random object which holds the internal state of a modelled generator in a
+ * plain field, so that stepping it needs no synchronization.
+ * 
+ * Subclasses override the methods whose algorithm differs from
+ * java.util.Random. The seed held by the base class is unused. The cached
+ * gaussian is held here rather than in the base class, so that it is cleared
+ * when the state is reset.
+ * 
+ * @author matthew
+ */
+public abstract class ModelRandom extends Random {
+
+	private static final long serialVersionUID = 1L;
+
+	protected long state;
+	protected boolean haveNextNextGaussian;
+	protected double nextNextGaussian;
+	private final boolean initialized;
+
+	protected ModelRandom(long state) {
+		super(0);
+		this.state = state;
+		initialized = true;
+	}
+
+	/**
+	 * Returns the current internal state of the modelled generator.
+	 */
+	public long getState() {
+		return state;
+	}
+
+	/**
+	 * Returns true if the generator holds a value that it will return without
+	 * advancing the state, such as the second value of a gaussian pair. The
+	 * state alone does not describe such a generator.
+	 */
+	public boolean hasCachedValues() {
+		return haveNextNextGaussian;
+	}
+
+	/**
+	 * Draws nextInt(bound) for each bound in turn, stopping at the first draw
+	 * which differs from the expected value. Returns true if every draw
+	 * matched.
+	 */
+	public boolean nextIntsMatch(int[] bounds, int[] expected) {
+		for (int i = 0; i < bounds.length; i++) {
+			if (nextInt(bounds[i]) != expected[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Draws nextGaussian() and returns true if it matches the observed result.
+	 */
+	public boolean nextGaussianMatches(GaussianObservation observation) {
+		return nextGaussian() == observation.getResult();
+	}
+
+	/**
+	 * Moves the modelled generator to the internal state, discarding any
+	 * values it has cached. This allows one object to evaluate many states.
+	 */
+	public void reset(long state) {
+		this.state = state;
+		haveNextNextGaussian = false;
+	}
+
+	/**
+	 * Copied from nextGaussian() in java.util.Random
+	 */
+	@Override
+	public double nextGaussian() {
+		if (haveNextNextGaussian) {
+			haveNextNextGaussian = false;
+			return nextNextGaussian;
+		}
+
+		double v1, v2, s;
+		do {
+			v1 = 2 * nextDouble() - 1;
+			v2 = 2 * nextDouble() - 1;
+			s = v1 * v1 + v2 * v2;
+		}
+		while (s >= 1 || s == 0);
+
+		double multiplier = StrictMath.sqrt(-2 * StrictMath.log(s) / s);
+		nextNextGaussian = v2 * multiplier;
+		haveNextNextGaussian = true;
+		return v1 * multiplier;
+	}
+
+	/**
+	 * The base class calls this during construction, after which the state
+	 * cannot be changed through a seed.
+	 */
+	@Override
+	public void setSeed(long seed) {
+		if (initialized) {
+			throw new UnsupportedOperationException();
+		}
+	}
+}
@@ -0,0 +1,36 @@
+package com.franglen.oracle.model;
+
+import java.util.stream.LongStream;
+
+/**
+ * A model of a pseudo random number generator. The model describes how a seed
+ * becomes the internal state of the generator, and can produce a Random object
+ * which generates the same values as the modelled generator from that state.
+ * 
+ * @author matthew
+ */
+public interface PrngModel {
+
+	/**
+	 * Returns the internal state that the generator has after being
+	 * constructed with the seed.
+	 */
+	public long toState(long seed);
+
+	/**
+	 * Returns a seed which the generator turns into the internal state.
+	 */
+	public long toSeed(long state);
+
+	/**
+	 * Creates a Random object which will generate the same values as the
+	 * modelled generator would from the internal state.
+	 */
+	public ModelRandom random(long state);
+
+	/**
+	 * Streams every internal state which would generate the value on the next
+	 * call to nextLong().
+	 */
+	public LongStream statesBeforeLong(long value);
+}
@@ -0,0 +1,171 @@
+package com.franglen.oracle.model;
+
+import java.util.stream.LongStream;
+
+/**
+ * Models java.util.SplittableRandom, which adds a gamma to its state and
+ * mixes the result to produce each output.
+ * 
+ * The 64 bit mixer can be inverted, so a single nextLong() output identifies
+ * the state.
+ * 
+ * @author matthew
+ */
+public class SplittableRandomModel implements PrngModel {
+
+	private static final double DOUBLE_UNIT = 0x1.0p-53;
+	private static final float FLOAT_UNIT = 0x1.0p-24f;
+
+	/**
+	 * Models a generator constructed with a seed, which always uses the golden
+	 * gamma.
+	 */
+	public static final SplittableRandomModel INSTANCE = new SplittableRandomModel(Mixers.GOLDEN_GAMMA);
+
+	private final long gamma;
+
+	public SplittableRandomModel(long gamma) {
+		if ((gamma & 1) == 0) {
+			throw new IllegalArgumentException("Gamma must be odd: " + gamma);
+		}
+
+		this.gamma = gamma;
+	}
+
+	/**
+	 * Creates a model from two consecutive nextLong() outputs. This finds the
+	 * gamma of a generator created without a seed or by splitting.
+	 */
+	public static SplittableRandomModel fromLongs(long first, long second) {
+		return new SplittableRandomModel(Mixers.unstafford64(second) - Mixers.unstafford64(first));
+	}
+
+	public long getGamma() {
+		return gamma;
+	}
+
+	/**
+	 * The seed is used as the state without alteration.
+	 */
+	@Override
+	public long toState(long seed) {
+		return seed;
+	}
+
+	@Override
+	public long toSeed(long state) {
+		return state;
+	}
+
+	@Override
+	public ModelRandom random(long state) {
+		return new SplitMixRandom(state, gamma);
+	}
+
+	@Override
+	public LongStream statesBeforeLong(long value) {
+		return LongStream.of(Mixers.unstafford64(value) - gamma);
+	}
+
+	@Override
+	public boolean equals(Object other) {
+		return other instanceof SplittableRandomModel && gamma == ((SplittableRandomModel) other).gamma;
+	}
+
+	@Override
+	public int hashCode() {
+		return Long.hashCode(gamma);
+	}
+
+	/**
+	 * Follows the methods of SplittableRandom, which share no algorithms with
+	 * java.util.Random.
+	 */
+	private static final class SplitMixRandom extends ModelRandom {
+
+		private static final long serialVersionUID = 1L;
+
+		private final long gamma;
+
+		SplitMixRandom(long state, long gamma) {
+			super(state);
+			this.gamma = gamma;
+		}
+
+		@Override
+		protected int next(int bits) {
+			return nextInt() >>> (32 - bits);
+		}
+
+		@Override
+		public int nextInt() {
+			return Mixers.stafford32(state += gamma);
+		}
+
+		@Override
+		public long nextLong() {
+			return Mixers.stafford64(state += gamma);
+		}
+
+		@Override
+		public int nextInt(int bound) {
+			if (bound <= 0) {
+				throw new IllegalArgumentException("bound must be positive");
+			}
+
+			int r = nextInt(), m = bound - 1;
+			if ((bound & m) == 0) {
+				return r & m;
+			}
+			for (int u = r >>> 1; u + m - (r = u % bound) < 0; u = nextInt() >>> 1)
+				;
+			return r;
+		}
+
+		@Override
+		public boolean nextBoolean() {
+			return nextInt() < 0;
+		}
+
+		@Override
+		public float nextFloat() {
+			return (nextInt() >>> 8) * FLOAT_UNIT;
+		}
+
+		@Override
+		public double nextDouble() {
+			return (nextLong() >>> 11) * DOUBLE_UNIT;
+		}
+
+		/**
+		 * Copied from nextBytes() in java.util.SplittableRandom, which fills
+		 * eight bytes from each long.
+		 */
+		@Override
+		public void nextBytes(byte[] bytes) {
+			int i = 0;
+			int length = bytes.length;
+
+			for (int words = length >> 3; words-- > 0;) {
+				long random = nextLong();
+				for (int n = 8; n-- > 0; random >>>= Byte.SIZE) {
+					bytes[i++] = (byte) random;
+				}
+			}
+			if (i < length) {
+				for (long random = nextLong(); i < length; random >>>= Byte.SIZE) {
+					bytes[i++] = (byte) random;
+				}
+			}
+		}
+
+		/**
+		 * SplittableRandom uses a ziggurat algorithm which is not modelled.
+		 * Filters which draw a gaussian are rejected when they are added.
+		 */
+		@Override
+		public double nextGaussian() {
+			throw new UnsupportedOperationException();
+		}
+	}
+}
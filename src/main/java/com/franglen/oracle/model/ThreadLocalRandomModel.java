@@ -0,0 +1,195 @@
+package com.franglen.oracle.model;
+
+import java.util.stream.LongStream;
+
+/**
+ * Models java.util.concurrent.ThreadLocalRandom, which keeps a state for each
+ * thread. The state advances by a gamma and each output is mixed from it. The
+ * algorithm changed in Java 17, so the model follows either version, chosen
+ * by default from the running Java version.
+ * 
+ * The 64 bit mixer can be inverted, so a single nextLong() output identifies
+ * the state.
+ * 
+ * @author matthew
+ */
+public class ThreadLocalRandomModel implements PrngModel {
+
+	/**
+	 * The versions of ThreadLocalRandom.
+	 */
+	public enum Algorithm {
+		/**
+		 * Java 8 to 16, where every thread advances by the golden gamma and
+		 * each method mixes its output from the state directly. Gaussians are
+		 * cached for each thread.
+		 */
+		JAVA_8,
+		/**
+		 * Java 17 onwards, where each thread advances by a gamma derived from
+		 * its id. Only nextInt() and nextLong() are specific to
+		 * ThreadLocalRandom; the other methods draw on next(bits) as
+		 * java.util.Random does. Gaussians are cached in the one instance
+		 * shared by every thread, so the model only follows them while a
+		 * single thread draws gaussians.
+		 */
+		JAVA_17;
+
+		/**
+		 * Returns the algorithm of the running Java version.
+		 */
+		public static Algorithm current() {
+			String version = System.getProperty("java.specification.version");
+			return version.startsWith("1.") || Integer.parseInt(version) < 17 ? JAVA_8 : JAVA_17;
+		}
+	}
+
+	private final Algorithm algorithm;
+	private final long gamma;
+
+	/**
+	 * Models the generator of the thread with the given id, as implemented by
+	 * the running Java version.
+	 */
+	public ThreadLocalRandomModel(long threadId) {
+		this(threadId, Algorithm.current());
+	}
+
+	public ThreadLocalRandomModel(long threadId, Algorithm algorithm) {
+		this.algorithm = algorithm;
+		gamma = algorithm == Algorithm.JAVA_8 ? Mixers.GOLDEN_GAMMA : (threadId << 1) + Mixers.GOLDEN_GAMMA;
+	}
+
+	public Algorithm getAlgorithm() {
+		return algorithm;
+	}
+
+	/**
+	 * ThreadLocalRandom cannot be seeded, so the seed is the state.
+	 */
+	@Override
+	public long toState(long seed) {
+		return seed;
+	}
+
+	@Override
+	public long toSeed(long state) {
+		return state;
+	}
+
+	@Override
+	public ModelRandom random(long state) {
+		return algorithm == Algorithm.JAVA_8 ? new LegacyMixRandom(state, gamma) : new ThreadLocalMixRandom(state, gamma);
+	}
+
+	@Override
+	public LongStream statesBeforeLong(long value) {
+		return LongStream.of(Mixers.unmurmur64(value) - gamma);
+	}
+
+	@Override
+	public boolean equals(Object other) {
+		if (!(other instanceof ThreadLocalRandomModel)) {
+			return false;
+		}
+
+		ThreadLocalRandomModel model = (ThreadLocalRandomModel) other;
+		return algorithm == model.algorithm && gamma == model.gamma;
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * algorithm.hashCode() + Long.hashCode(gamma);
+	}
+
+	private static final class ThreadLocalMixRandom extends ModelRandom {
+
+		private static final long serialVersionUID = 1L;
+
+		private final long gamma;
+
+		ThreadLocalMixRandom(long state, long gamma) {
+			super(state);
+			this.gamma = gamma;
+		}
+
+		@Override
+		protected int next(int bits) {
+			return nextInt() >>> (32 - bits);
+		}
+
+		@Override
+		public int nextInt() {
+			return Mixers.murmur32(state += gamma);
+		}
+
+		@Override
+		public long nextLong() {
+			return Mixers.murmur64(state += gamma);
+		}
+	}
+
+	/**
+	 * Copied from ThreadLocalRandom in Java 8, which overrides each method
+	 * rather than drawing on next(bits).
+	 */
+	private static final class LegacyMixRandom extends ModelRandom {
+
+		private static final long serialVersionUID = 1L;
+
+		private static final double DOUBLE_UNIT = 0x1.0p-53;
+		private static final float FLOAT_UNIT = 0x1.0p-24f;
+
+		private final long gamma;
+
+		LegacyMixRandom(long state, long gamma) {
+			super(state);
+			this.gamma = gamma;
+		}
+
+		@Override
+		protected int next(int bits) {
+			return (int) (nextLong() >>> (64 - bits));
+		}
+
+		@Override
+		public int nextInt() {
+			return Mixers.murmur32(state += gamma);
+		}
+
+		@Override
+		public long nextLong() {
+			return Mixers.murmur64(state += gamma);
+		}
+
+		@Override
+		public int nextInt(int bound) {
+			if (bound <= 0) {
+				throw new IllegalArgumentException("bound must be positive");
+			}
+
+			int r = nextInt(), m = bound - 1;
+			if ((bound & m) == 0) {
+				return r & m;
+			}
+			for (int u = r >>> 1; u + m - (r = u % bound) < 0; u = nextInt() >>> 1)
+				;
+			return r;
+		}
+
+		@Override
+		public boolean nextBoolean() {
+			return nextInt() < 0;
+		}
+
+		@Override
+		public float nextFloat() {
+			return (nextInt() >>> 8) * FLOAT_UNIT;
+		}
+
+		@Override
+		public double nextDouble() {
+			return (nextLong() >>> 11) * DOUBLE_UNIT;
+		}
+	}
+}
@@ -0,0 +1,209 @@
+package com.franglen.oracle.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.franglen.oracle.RecoveryJob;
+import com.franglen.oracle.SeedFilter;
+import com.franglen.oracle.SharedScanTracker;
+import com.franglen.oracle.filter.Filter;
+import com.franglen.oracle.generator.LinearGenerator;
+
+/**
+ * Groups requests that scan the same seeds into a single shared scan.
+ * 
+ * The first request for a range opens a batch, which collects every request
+ * for that range that arrives within the batching window. The batch is then
+ * scanned once on a dedicated pool, so scans do not compete with the common
+ * pool.
+ * 
+ * A request which matches more seeds than the survivor limit fails once the
+ * limit is passed, rather than collecting every match. A request which fails
+ * does not affect the other requests in its batch.
+ * 
+ * @author matthew
+ */
+public class RecoveryBatcher implements AutoCloseable {
+
+	public static final long DEFAULT_MAXIMUM_SURVIVORS = 1_000_000;
+
+	private final ConcurrentMap<String, Batch> openBatches;
+	private final ScheduledExecutorService scheduler;
+	private final ForkJoinPool scanPool;
+	private final long windowMillis;
+	private final long maximumSurvivors;
+	private final AtomicLong requestCount;
+	private final AtomicLong scanCount;
+
+	public RecoveryBatcher(long windowMillis, int parallelism) {
+		this(windowMillis, parallelism, DEFAULT_MAXIMUM_SURVIVORS);
+	}
+
+	public RecoveryBatcher(long windowMillis, int parallelism, long maximumSurvivors) {
+		if (windowMillis < 0) {
+			throw new IllegalArgumentException("Batching window must not be negative: " + windowMillis);
+		}
+		if (maximumSurvivors < 0) {
+			throw new IllegalArgumentException("Survivor limit must not be negative: " + maximumSurvivors);
+		}
+
+		this.windowMillis = windowMillis;
+		this.maximumSurvivors = maximumSurvivors;
+		openBatches = new ConcurrentHashMap<>();
+		scheduler = Executors.newSingleThreadScheduledExecutor((Runnable runnable) -> {
+			Thread thread = new Thread(runnable, "recovery-batcher");
+			thread.setDaemon(true);
+			return thread;
+		});
+		scanPool = new ForkJoinPool(parallelism);
+		requestCount = new AtomicLong();
+		scanCount = new AtomicLong();
+	}
+
+	/**
+	 * Adds the request to the open batch for its range. The job is completed
+	 * once the batch has been scanned.
+	 */
+	public CompletableFuture<RecoveryJob> submit(RecoveryRequest request) {
+		CompletableFuture<RecoveryJob> result = new CompletableFuture<>();
+		Batch[] opened = new Batch[1];
+
+		requestCount.incrementAndGet();
+		openBatches.compute(request.getBatchKey(), (String key, Batch batch) -> {
+			if (batch == null) {
+				batch = opened[0] = new Batch(request, maximumSurvivors);
+			}
+			batch.add(request, result);
+			return batch;
+		});
+
+		if (opened[0] != null) {
+			scheduler.schedule(() -> close(request.getBatchKey(), opened[0]), windowMillis, TimeUnit.MILLISECONDS);
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the number of requests that have been submitted.
+	 */
+	public long getRequestCount() {
+		return requestCount.get();
+	}
+
+	/**
+	 * Returns the number of scans that have been started. Each scan serves one
+	 * batch.
+	 */
+	public long getScanCount() {
+		return scanCount.get();
+	}
+
+	@Override
+	public void close() {
+		scheduler.shutdownNow();
+		scanPool.shutdownNow();
+	}
+
+	/**
+	 * Removing the batch happens after any request has finished joining it,
+	 * so later requests open a new batch.
+	 */
+	private void close(String key, Batch batch) {
+		openBatches.remove(key, batch);
+		scanCount.incrementAndGet();
+		scanPool.execute(batch::scan);
+	}
+
+	private static class Batch {
+
+		private final RecoveryRequest range;
+		private final long maximumSurvivors;
+		private final List<RecoveryRequest> requests;
+		private final List<CompletableFuture<RecoveryJob>> results;
+
+		Batch(RecoveryRequest range, long maximumSurvivors) {
+			this.range = range;
+			this.maximumSurvivors = maximumSurvivors;
+			requests = new ArrayList<>();
+			results = new ArrayList<>();
+		}
+
+		void add(RecoveryRequest request, CompletableFuture<RecoveryJob> result) {
+			requests.add(request);
+			results.add(result);
+		}
+
+		/**
+		 * Runs on the scan pool, so the parallel streams of the scan use it as
+		 * well. A request which is invalid, overflows or throws fails on its own.
+		 * Errors are not caught, but every request that has not been completed
+		 * is failed rather than left waiting.
+		 */
+		void scan() {
+			try {
+				SharedScanTracker tracker = new SharedScanTracker(new LinearGenerator(range.getStart()), range.getModel());
+				List<RecoveryJob> jobs = new ArrayList<>();
+
+				tracker.setIterationSize(range.getSize());
+				for (int i = 0; i < requests.size(); i++) {
+					jobs.add(addJob(tracker, requests.get(i), results.get(i)));
+				}
+
+				tracker.iterate();
+
+				for (int i = 0; i < jobs.size(); i++) {
+					complete(jobs.get(i), results.get(i));
+				}
+			}
+			catch (RuntimeException e) {
+				results.forEach((CompletableFuture<RecoveryJob> result) -> result.completeExceptionally(e));
+			}
+			finally {
+				results.forEach((CompletableFuture<RecoveryJob> result) -> result.completeExceptionally(new IllegalStateException("Scan did not complete")));
+			}
+		}
+
+		/**
+		 * Returns null if the filters of the request are not supported, having
+		 * failed the request.
+		 */
+		private RecoveryJob addJob(SharedScanTracker tracker, RecoveryRequest request, CompletableFuture<RecoveryJob> result) {
+			try {
+				request.getFilters().forEach((Filter filter) -> SeedFilter.checkSupported(range.getModel(), filter));
+			}
+			catch (IllegalArgumentException e) {
+				result.completeExceptionally(e);
+				return null;
+			}
+
+			RecoveryJob job = tracker.addJob();
+			job.setSurvivorLimit(maximumSurvivors);
+			request.getFilters().forEach(job::addFilter);
+			return job;
+		}
+
+		private void complete(RecoveryJob job, CompletableFuture<RecoveryJob> result) {
+			if (job == null) {
+				return;
+			}
+
+			if (job.getFailure() != null) {
+				result.completeExceptionally(job.getFailure());
+			}
+			else if (job.isOverflowed()) {
+				result.completeExceptionally(new IllegalStateException("Request matched more than the limit of " + maximumSurvivors + " seeds"));
+			}
+			else {
+				result.complete(job);
+			}
+		}
+	}
+}
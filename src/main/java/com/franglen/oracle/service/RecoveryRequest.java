@@ -0,0 +1,216 @@
+package com.franglen.oracle.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.franglen.oracle.filter.ApproximateDoubleFilter;
+import com.franglen.oracle.filter.ApproximateFloatFilter;
+import com.franglen.oracle.filter.ApproximateIntFilter;
+import com.franglen.oracle.filter.DoubleFilter;
+import com.franglen.oracle.filter.Filter;
+import com.franglen.oracle.filter.IntFilter;
+import com.franglen.oracle.filter.LongFilter;
+import com.franglen.oracle.model.JavaRandomModel;
+import com.franglen.oracle.model.PrngModel;
+import com.franglen.oracle.model.SplittableRandomModel;
+import com.franglen.oracle.model.ThreadLocalRandomModel;
+
+/**
+ * A sequence of observations to recover, along with the model of the generator
+ * and the range of seeds to scan.
+ * 
+ * The request is read as lines of whitespace separated words:
+ * 
+ * <pre>
+ * MODEL java | splittable [gamma] | threadlocal threadId [java8 | java17]
+ * RANGE start size
+ * INT value [tolerance]
+ * LONG value
+ * FLOAT value tolerance
+ * DOUBLE value [tolerance]
+ * END
+ * </pre>
+ * 
+ * The model defaults to java.util.Random, and the range and at least one
+ * observation are required. The
+ * version of ThreadLocalRandom defaults to that of the running Java version. The
+ * observations are given in the order they were generated.
+ * 
+ * @author matthew
+ */
+public class RecoveryRequest {
+
+	/**
+	 * The largest range that a request may scan unless another limit is
+	 * given. Every seed in the range may survive, so this bounds the memory of
+	 * a scan.
+	 */
+	public static final long DEFAULT_MAXIMUM_SIZE = 100_000_000;
+
+	private final String model;
+	private final long start;
+	private final long size;
+	private final List<Filter> filters;
+
+	RecoveryRequest(String model, long start, long size, List<Filter> filters) {
+		this.model = model;
+		this.start = start;
+		this.size = size;
+		this.filters = Collections.unmodifiableList(new ArrayList<>(filters));
+	}
+
+	/**
+	 * Reads a request, returning null if the reader is exhausted before the
+	 * request starts.
+	 */
+	public static RecoveryRequest read(BufferedReader reader) throws IOException {
+		return read(reader, DEFAULT_MAXIMUM_SIZE);
+	}
+
+	/**
+	 * Reads a request whose range holds no more than the maximum number of
+	 * seeds.
+	 */
+	public static RecoveryRequest read(BufferedReader reader, long maximumSize) throws IOException {
+		String model = "java";
+		Long start = null, size = null;
+		List<Filter> filters = new ArrayList<>();
+		boolean started = false;
+
+		for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+			String[] words = line.trim().split("\\s+");
+			if (words[0].isEmpty()) {
+				continue;
+			}
+
+			started = true;
+			switch (words[0].toUpperCase()) {
+			case "MODEL":
+				model = String.join(" ", words).substring(words[0].length()).trim().toLowerCase();
+				toModel(model);
+				break;
+			case "RANGE":
+				requireWords(words, 3);
+				start = Long.parseLong(words[1]);
+				size = Long.parseLong(words[2]);
+				if (size < 0) {
+					throw new IllegalArgumentException("Range size must not be negative: " + size);
+				}
+				if (size > maximumSize) {
+					throw new IllegalArgumentException("Range size " + size + " is larger than the maximum of " + maximumSize);
+				}
+				break;
+			case "INT":
+				filters.add(toIntFilter(words));
+				break;
+			case "LONG":
+				requireWords(words, 2);
+				filters.add(new LongFilter(Long.parseLong(words[1])));
+				break;
+			case "FLOAT":
+				requireWords(words, 3);
+				filters.add(new ApproximateFloatFilter(Float.parseFloat(words[1]), Float.parseFloat(words[2])));
+				break;
+			case "DOUBLE":
+				filters.add(toDoubleFilter(words));
+				break;
+			case "END":
+				if (start == null) {
+					throw new IllegalArgumentException("Request has no RANGE");
+				}
+				if (filters.isEmpty()) {
+					throw new IllegalArgumentException("Request has no observations");
+				}
+				return new RecoveryRequest(model, start, size, filters);
+			default:
+				throw new IllegalArgumentException("Unknown request line: " + line);
+			}
+		}
+
+		if (started) {
+			throw new IllegalArgumentException("Request has no END");
+		}
+		return null;
+	}
+
+	/**
+	 * Requests which have the same batch key scan the same seeds, so they can
+	 * share a scan.
+	 */
+	public String getBatchKey() {
+		return model + " " + start + " " + size;
+	}
+
+	public PrngModel getModel() {
+		return toModel(model);
+	}
+
+	public long getStart() {
+		return start;
+	}
+
+	public long getSize() {
+		return size;
+	}
+
+	public List<Filter> getFilters() {
+		return filters;
+	}
+
+	private static PrngModel toModel(String model) {
+		String[] words = model.split("\\s+");
+
+		switch (words[0]) {
+		case "java":
+			return JavaRandomModel.INSTANCE;
+		case "splittable":
+			return words.length == 1 ? SplittableRandomModel.INSTANCE : new SplittableRandomModel(Long.parseLong(words[1]));
+		case "threadlocal":
+			requireWords(words, 2);
+			long threadId = Long.parseLong(words[1]);
+			return words.length == 2 ? new ThreadLocalRandomModel(threadId) : new ThreadLocalRandomModel(threadId, toAlgorithm(words[2]));
+		default:
+			throw new IllegalArgumentException("Unknown model: " + model);
+		}
+	}
+
+	private static ThreadLocalRandomModel.Algorithm toAlgorithm(String version) {
+		switch (version) {
+		case "java8":
+			return ThreadLocalRandomModel.Algorithm.JAVA_8;
+		case "java17":
+			return ThreadLocalRandomModel.Algorithm.JAVA_17;
+		default:
+			throw new IllegalArgumentException("Unknown ThreadLocalRandom version: " + version);
+		}
+	}
+
+	private static Filter toIntFilter(String[] words) {
+		requireWords(words, 2);
+		int value = Integer.parseInt(words[1]);
+
+		if (words.length > 2) {
+			return new ApproximateIntFilter(value, Long.parseLong(words[2]));
+		}
+		return new IntFilter(value);
+	}
+
+	private static Filter toDoubleFilter(String[] words) {
+		requireWords(words, 2);
+		double value = Double.parseDouble(words[1]);
+
+		if (words.length > 2) {
+			return new ApproximateDoubleFilter(value, Double.parseDouble(words[2]));
+		}
+		return new DoubleFilter(value);
+	}
+
+	private static void requireWords(String[] words, int count) {
+		if (words.length < count) {
+			throw new IllegalArgumentException("Expected " + (count - 1) + " values after " + words[0]);
+		}
+	}
+}
@@ -0,0 +1,176 @@
+package com.franglen.oracle.service;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.PrimitiveIterator;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.franglen.oracle.RecoveryJob;
+
+/**
+ * Serves recovery requests over a plain socket on the loopback address.
+ * 
+ * Each connection sends requests as described by {@link RecoveryRequest}. For
+ * each request the server replies with the number of distinct states found,
+ * then every recovered seed, then a terminating line:
+ * 
+ * <pre>
+ * COUNT states
+ * SEED seed
+ * DONE
+ * </pre>
+ * 
+ * A malformed request, or one whose range is larger than the server allows,
+ * is answered with an ERROR line and the connection is closed. A request
+ * which fails during its scan is answered with an ERROR line in place of its
+ * results. Connections are handled on threads with small stacks, which spend
+ * nearly all their time waiting for a batch to be scanned.
+ * 
+ * @author matthew
+ */
+public class RecoveryServer implements AutoCloseable {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(RecoveryServer.class);
+
+	private static final int DEFAULT_PORT = 7070;
+	private static final long DEFAULT_WINDOW_MILLIS = 5;
+	private static final int BACKLOG = 1024;
+	private static final long CONNECTION_STACK_SIZE = 256 * 1024;
+
+	private final RecoveryBatcher batcher;
+	private final long maximumRangeSize;
+	private final ServerSocket serverSocket;
+	private final ExecutorService connections;
+	private final AtomicLong connectionCount;
+
+	public RecoveryServer(int port, RecoveryBatcher batcher) throws IOException {
+		this(port, batcher, RecoveryRequest.DEFAULT_MAXIMUM_SIZE);
+	}
+
+	public RecoveryServer(int port, RecoveryBatcher batcher, long maximumRangeSize) throws IOException {
+		this.batcher = batcher;
+		this.maximumRangeSize = maximumRangeSize;
+		serverSocket = new ServerSocket(port, BACKLOG, InetAddress.getLoopbackAddress());
+		connectionCount = new AtomicLong();
+		connections = Executors.newCachedThreadPool((Runnable runnable) -> {
+			Thread thread = new Thread(null, runnable, "recovery-connection-" + connectionCount.incrementAndGet(), CONNECTION_STACK_SIZE);
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	public static void main(String[] args) throws IOException {
+		int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+		long windowMillis = args.length > 1 ? Long.parseLong(args[1]) : DEFAULT_WINDOW_MILLIS;
+		RecoveryServer server = new RecoveryServer(port, new RecoveryBatcher(windowMillis, Runtime.getRuntime().availableProcessors()));
+
+		LOGGER.info("Listening on {}", server.getPort());
+		server.accept();
+	}
+
+	/**
+	 * Accepts connections on a background thread.
+	 */
+	public void start() {
+		Thread acceptor = new Thread(this::accept, "recovery-acceptor");
+		acceptor.setDaemon(true);
+		acceptor.start();
+	}
+
+	public int getPort() {
+		return serverSocket.getLocalPort();
+	}
+
+	@Override
+	public void close() throws IOException {
+		serverSocket.close();
+		connections.shutdownNow();
+		batcher.close();
+	}
+
+	private void accept() {
+		while (!serverSocket.isClosed()) {
+			try {
+				Socket socket = serverSocket.accept();
+				connections.execute(() -> handle(socket));
+			}
+			catch (SocketException e) {
+				LOGGER.debug("Server socket closed", e);
+			}
+			catch (IOException e) {
+				LOGGER.warn("Failed to accept connection", e);
+			}
+		}
+	}
+
+	private void handle(Socket socket) {
+		try (Socket connection = socket;
+				BufferedReader reader = new BufferedReader(new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8));
+				Writer writer = new BufferedWriter(new OutputStreamWriter(connection.getOutputStream(), StandardCharsets.UTF_8))) {
+			connection.setTcpNoDelay(true);
+
+			for (RecoveryRequest request = read(reader, writer); request != null; request = read(reader, writer)) {
+				try {
+					respond(batcher.submit(request).get(), writer);
+				}
+				catch (ExecutionException e) {
+					LOGGER.warn("Failed to recover request", e.getCause());
+					error(e.getCause(), writer);
+				}
+			}
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		catch (IOException e) {
+			LOGGER.warn("Failed to handle connection", e);
+		}
+	}
+
+	/**
+	 * Returns null when the connection has no more requests or sent a
+	 * malformed one.
+	 */
+	private RecoveryRequest read(BufferedReader reader, Writer writer) throws IOException {
+		try {
+			return RecoveryRequest.read(reader, maximumRangeSize);
+		}
+		catch (IllegalArgumentException e) {
+			error(e, writer);
+			return null;
+		}
+	}
+
+	private void error(Throwable cause, Writer writer) throws IOException {
+		String message = cause.getMessage() == null ? cause.getClass().getSimpleName() : cause.getMessage();
+
+		writer.write("ERROR " + message.replace('\n', ' ') + "\n");
+		writer.flush();
+	}
+
+	private void respond(RecoveryJob job, Writer writer) throws IOException {
+		writer.write("COUNT " + job.size() + "\n");
+
+		for (PrimitiveIterator.OfLong seeds = job.seeds().iterator(); seeds.hasNext();) {
+			writer.write("SEED " + seeds.nextLong() + "\n");
+		}
+
+		writer.write("DONE\n");
+		writer.flush();
+	}
+}
@@ -0,0 +1,33 @@
+package com.franglen.oracle.snapshot;
+
+/**
+ * Constants of the snapshot format.
+ * 
+ * A snapshot starts with a magic number and a version. The states follow in
+ * blocks, each of which starts with an index of its first state, its last
+ * state, the number of states and the length of its encoded deltas. The
+ * difference between each state and the one before it is written as an
+ * unsigned variable length integer, seven bits to a byte. A block with no
+ * states ends the snapshot.
+ * 
+ * A reader uses the index to skip a block without decoding it.
+ * 
+ * @author matthew
+ */
+final class SnapshotFormat {
+
+	/**
+	 * "SEED" in ASCII.
+	 */
+	static final int MAGIC = 0x53454544;
+	static final int VERSION = 1;
+	static final int BLOCK_SIZE = 4096;
+
+	/**
+	 * The longest encoding of a 64 bit value.
+	 */
+	static final int MAXIMUM_VARINT_BYTES = 10;
+
+	private SnapshotFormat() {
+	}
+}
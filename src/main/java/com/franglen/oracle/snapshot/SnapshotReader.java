@@ -0,0 +1,209 @@
+package com.franglen.oracle.snapshot;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+
+import com.franglen.oracle.collection.LongList;
+
+/**
+ * Reads the internal states from a snapshot in a single pass. Blocks are
+ * decoded as they are reached, so the whole snapshot is never held in
+ * memory.
+ * 
+ * @author matthew
+ */
+public class SnapshotReader implements Closeable {
+
+	private final DataInputStream input;
+	private byte[] deltas;
+	private boolean consumed;
+
+	public SnapshotReader(InputStream input) throws IOException {
+		this.input = new DataInputStream(new BufferedInputStream(input));
+		deltas = new byte[0];
+
+		if (this.input.readInt() != SnapshotFormat.MAGIC) {
+			throw new IOException("Not a snapshot");
+		}
+		int version = this.input.readInt();
+		if (version != SnapshotFormat.VERSION) {
+			throw new IOException("Unsupported snapshot version: " + version);
+		}
+	}
+
+	/**
+	 * Streams the states in ascending order. A failure to read the snapshot
+	 * is thrown as an UncheckedIOException.
+	 */
+	public LongStream states() {
+		claim();
+
+		int characteristics = Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.SORTED | Spliterator.NONNULL;
+		return StreamSupport.longStream(Spliterators.spliteratorUnknownSize(new StateIterator(), characteristics), false);
+	}
+
+	/**
+	 * Returns the states of the snapshot which are also in the sorted array,
+	 * such as the states of a fresh scan. Blocks whose range holds none of
+	 * the states are skipped without being decoded.
+	 */
+	public long[] intersect(long[] sortedStates) throws IOException {
+		claim();
+
+		LongList intersection = new LongList();
+		int position = 0;
+		Block block = new Block();
+
+		while (position < sortedStates.length && block.readHeader()) {
+			position = lowerBound(sortedStates, position, block.first);
+
+			if (position == sortedStates.length || sortedStates[position] > block.last) {
+				block.skip();
+				continue;
+			}
+
+			block.readDeltas();
+			long state = block.first;
+			for (int i = 0; i < block.count && position < sortedStates.length; i++) {
+				if (i > 0) {
+					state += block.nextDelta();
+				}
+				while (position < sortedStates.length && sortedStates[position] < state) {
+					position++;
+				}
+				if (position < sortedStates.length && sortedStates[position] == state) {
+					intersection.add(state);
+					position++;
+				}
+			}
+		}
+
+		return intersection.toArray();
+	}
+
+	@Override
+	public void close() throws IOException {
+		input.close();
+	}
+
+	private void claim() {
+		if (consumed) {
+			throw new IllegalStateException("The snapshot has already been read");
+		}
+		consumed = true;
+	}
+
+	/**
+	 * Returns the first position from the start which holds a value no less
+	 * than the key.
+	 */
+	private static int lowerBound(long[] sorted, int start, long key) {
+		int index = Arrays.binarySearch(sorted, start, sorted.length, key);
+		return index < 0 ? -index - 1 : index;
+	}
+
+	/**
+	 * The block that the reader has reached, and the position of the next
+	 * delta within it.
+	 */
+	private class Block {
+
+		private long first;
+		private long last;
+		private int count;
+		private int length;
+		private int offset;
+
+		boolean readHeader() throws IOException {
+			first = input.readLong();
+			last = input.readLong();
+			count = input.readInt();
+			length = input.readInt();
+
+			if (count < 0 || length < 0) {
+				throw new IOException("Corrupt snapshot block");
+			}
+			return count > 0;
+		}
+
+		void readDeltas() throws IOException {
+			if (deltas.length < length) {
+				deltas = new byte[length];
+			}
+			input.readFully(deltas, 0, length);
+			offset = 0;
+		}
+
+		void skip() throws IOException {
+			for (int skipped = 0; skipped < length;) {
+				int next = input.skipBytes(length - skipped);
+				if (next == 0) {
+					input.readByte();
+					next = 1;
+				}
+				skipped += next;
+			}
+		}
+
+		long nextDelta() {
+			long value = 0;
+
+			for (int shift = 0;; shift += 7) {
+				byte next = deltas[offset++];
+				value |= (long) (next & 0x7F) << shift;
+				if (next >= 0) {
+					return value;
+				}
+			}
+		}
+	}
+
+	private class StateIterator implements PrimitiveIterator.OfLong {
+
+		private final Block block = new Block();
+		private int remaining;
+		private long state;
+		private boolean finished;
+
+		@Override
+		public boolean hasNext() {
+			if (remaining == 0 && !finished) {
+				try {
+					if (block.readHeader()) {
+						block.readDeltas();
+						remaining = block.count;
+					}
+					else {
+						finished = true;
+					}
+				}
+				catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			}
+			return remaining > 0;
+		}
+
+		@Override
+		public long nextLong() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+
+			state = remaining == block.count ? block.first : state + block.nextDelta();
+			remaining--;
+			return state;
+		}
+	}
+}
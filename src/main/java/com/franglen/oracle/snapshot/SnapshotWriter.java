@@ -0,0 +1,103 @@
+package com.franglen.oracle.snapshot;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.PrimitiveIterator;
+import java.util.stream.LongStream;
+
+/**
+ * Writes internal states to a snapshot. The states must be distinct and in
+ * ascending order, as they are streamed by SeedTracker.
+ * 
+ * Closing the writer writes the final block and closes the stream.
+ * 
+ * @author matthew
+ */
+public class SnapshotWriter implements Closeable {
+
+	private final DataOutputStream output;
+	private final byte[] deltas;
+	private int length;
+	private int count;
+	private long first;
+	private long last;
+	private boolean started;
+	private boolean closed;
+
+	public SnapshotWriter(OutputStream output) throws IOException {
+		this.output = new DataOutputStream(new BufferedOutputStream(output));
+		deltas = new byte[(SnapshotFormat.BLOCK_SIZE - 1) * SnapshotFormat.MAXIMUM_VARINT_BYTES];
+
+		this.output.writeInt(SnapshotFormat.MAGIC);
+		this.output.writeInt(SnapshotFormat.VERSION);
+	}
+
+	public void add(long state) throws IOException {
+		if (started && state <= last) {
+			throw new IllegalArgumentException("States must be distinct and ascending: " + state + " after " + last);
+		}
+		started = true;
+
+		if (count == SnapshotFormat.BLOCK_SIZE) {
+			writeBlock();
+		}
+
+		if (count == 0) {
+			first = state;
+		}
+		else {
+			writeVarint(state - last);
+		}
+		last = state;
+		count++;
+	}
+
+	public void addAll(LongStream states) throws IOException {
+		for (PrimitiveIterator.OfLong iterator = states.iterator(); iterator.hasNext();) {
+			add(iterator.nextLong());
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		closed = true;
+
+		if (count > 0) {
+			writeBlock();
+		}
+		writeHeader(0, 0, 0, 0);
+		output.close();
+	}
+
+	private void writeBlock() throws IOException {
+		writeHeader(first, last, count, length);
+		output.write(deltas, 0, length);
+		count = 0;
+		length = 0;
+	}
+
+	private void writeHeader(long first, long last, int count, int length) throws IOException {
+		output.writeLong(first);
+		output.writeLong(last);
+		output.writeInt(count);
+		output.writeInt(length);
+	}
+
+	/**
+	 * The states are ordered as signed values, so a delta may exceed the
+	 * largest signed long and is written as unsigned.
+	 */
+	private void writeVarint(long value) {
+		while ((value & ~0x7FL) != 0) {
+			deltas[length++] = (byte) ((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		deltas[length++] = (byte) value;
+	}
+}
@@ -0,0 +1,109 @@
+package com.franglen.oracle;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.stream.LongStream;
+
+import org.junit.Test;
+
+import com.franglen.oracle.filter.ApproximateIntFilter;
+import com.franglen.oracle.filter.DoubleFilter;
+import com.franglen.oracle.filter.IntFilter;
+import com.franglen.oracle.filter.LongFilter;
+import com.franglen.oracle.model.JavaRandomModel;
+import com.franglen.oracle.model.SplittableRandomModel;
+
+/**
+ * @author matthew
+ *
+ */
+public class FilterChainTest {
+
+	private static final long SEED = 1234567890123L;
+
+	private static final JavaRandomModel MODEL = JavaRandomModel.INSTANCE;
+
+	@Test
+	public void testCompiledAccept() {
+		Random random = new Random(SEED);
+		FilterChain chain = new FilterChain(MODEL)
+				.with(new IntFilter(random.nextInt()))
+				.with(new LongFilter(random.nextLong()))
+				.with(new DoubleFilter(random.nextDouble()));
+
+		assertTrue(chain.acceptsState(MODEL.toState(SEED)));
+		assertTrue(chain.acceptsState(MODEL.toState(SEED), MODEL.random(0)));
+	}
+
+	@Test
+	public void testCompiledReject() {
+		Random random = new Random(SEED);
+		FilterChain chain = new FilterChain(MODEL)
+				.with(new IntFilter(random.nextInt()))
+				.with(new DoubleFilter(random.nextDouble()));
+
+		assertFalse(chain.acceptsState(MODEL.toState(SEED + 1)));
+	}
+
+	@Test
+	public void testUnrepresentableDouble() {
+		FilterChain chain = new FilterChain(MODEL).with(new DoubleFilter(1.5));
+
+		assertFalse(LongStream.range(0, 10_000).anyMatch(chain::acceptsState));
+	}
+
+	@Test
+	public void testContinuesAfterCompiled() {
+		Random random = new Random(SEED);
+		FilterChain chain = new FilterChain(MODEL)
+				.with(new IntFilter(random.nextInt()))
+				.with(new ApproximateIntFilter(random.nextInt(), 0))
+				.with(new IntFilter(random.nextInt()));
+
+		assertTrue(chain.acceptsState(MODEL.toState(SEED)));
+		assertTrue(chain.acceptsState(MODEL.toState(SEED), MODEL.random(0)));
+		assertFalse(chain.acceptsState(MODEL.toState(SEED + 1)));
+	}
+
+	@Test
+	public void testMatchesFilters() {
+		long value = new Random(SEED).nextLong();
+		LongFilter filter = new LongFilter(value);
+		FilterChain chain = new FilterChain(MODEL).with(filter);
+
+		assertTrue(MODEL.statesBeforeLong(value).allMatch(chain::acceptsState));
+		assertTrue(MODEL.statesBeforeLong(value).allMatch((long state) -> filter.accepts(MODEL.random(state))));
+	}
+
+	@Test
+	public void testOtherModel() {
+		SplittableRandomModel model = SplittableRandomModel.INSTANCE;
+		FilterChain chain = new FilterChain(model).with(new IntFilter(new SplittableRandom(SEED).nextInt()));
+
+		assertTrue(chain.acceptsState(model.toState(SEED)));
+	}
+
+	@Test
+	public void testSnapshotIsImmutable() {
+		FilterChain empty = new FilterChain(MODEL);
+		FilterChain extended = empty.with(new IntFilter(0));
+
+		assertEquals(0, empty.size());
+		assertEquals(1, extended.size());
+	}
+
+	@Test
+	public void testScore() {
+		Random random = new Random(SEED);
+		FilterChain chain = new FilterChain(MODEL)
+				.with(new IntFilter(random.nextInt()))
+				.with(new ApproximateIntFilter(random.nextInt(), 0));
+
+		assertEquals(1, chain.score(MODEL.toState(SEED)), 0);
+		assertEquals(SeedFilter.REJECTED, chain.score(MODEL.toState(SEED + 1)), 0);
+	}
+}
@@ -1,5 +1,6 @@
 package com.franglen.oracle;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
@@ -7,8 +8,13 @@ import java.util.Random;
 
 import org.junit.Test;
 
+import com.franglen.oracle.filter.ApproximateFloatFilter;
 import com.franglen.oracle.filter.DoubleFilter;
+import com.franglen.oracle.filter.GaussianFilter;
 import com.franglen.oracle.filter.IntFilter;
+import com.franglen.oracle.model.JavaRandomModel;
+import com.franglen.oracle.model.ModelRandom;
+import com.franglen.oracle.model.SplittableRandomModel;
 
 /**
  * @author matthew
@@ -61,6 +67,45 @@ public class SeedFilterTest {
 		assertFalse(filter.accepts(BAD_STARTING_SEED));
 	}
 
+	@Test
+	public void testSharedRandom() {
+		SeedFilter filter = new SeedFilter();
+		ModelRandom random = JavaRandomModel.INSTANCE.random(0);
+		Random generator = new Random(GOOD_STARTING_SEED);
+
+		for (int i = 0; i < 10; i++) {
+			filter.addFilter(new IntFilter(generator.nextInt()));
+		}
+
+		assertFalse(filter.acceptsState(JavaRandomModel.INSTANCE.toState(BAD_STARTING_SEED), random));
+		assertTrue(filter.acceptsState(JavaRandomModel.INSTANCE.toState(GOOD_STARTING_SEED), random));
+	}
+
+	@Test
+	public void testScore() {
+		SeedFilter filter = new SeedFilter();
+		Random generator = new Random(GOOD_STARTING_SEED);
+
+		for (int i = 0; i < 10; i++) {
+			filter.addFilter(new ApproximateFloatFilter(generator.nextFloat(), 0));
+		}
+
+		assertEquals(10, filter.score(GOOD_STARTING_SEED), 0);
+		assertEquals(0, filter.score(BAD_STARTING_SEED), 0);
+	}
+
+	@Test
+	public void testScoreRejected() {
+		SeedFilter filter = new SeedFilter();
+		Random generator = new Random(GOOD_STARTING_SEED);
+
+		filter.addFilter(new ApproximateFloatFilter(generator.nextFloat(), 0));
+		filter.addFilter(new IntFilter(generator.nextInt()));
+
+		assertEquals(1, filter.score(GOOD_STARTING_SEED), 0);
+		assertEquals(SeedFilter.REJECTED, filter.score(BAD_STARTING_SEED), 0);
+	}
+
 	public void testMultipleDifferentFilters() {
 		SeedFilter filter = new SeedFilter();
 		Random generator = new Random(GOOD_STARTING_SEED);
@@ -73,4 +118,9 @@ public class SeedFilterTest {
 		assertTrue(filter.accepts(GOOD_STARTING_SEED));
 		assertFalse(filter.accepts(BAD_STARTING_SEED));
 	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testUnsupportedFilter() {
+		new SeedFilter(SplittableRandomModel.INSTANCE).addFilter(new GaussianFilter(0.5));
+	}
 }
@@ -1,15 +1,24 @@
 package com.franglen.oracle;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 import java.util.Random;
+import java.util.SplittableRandom;
 import java.util.stream.LongStream;
 
 import org.junit.Test;
 
+import com.franglen.oracle.filter.ApproximateDoubleFilter;
+import com.franglen.oracle.filter.ApproximateIntFilter;
 import com.franglen.oracle.filter.Filter;
+import com.franglen.oracle.filter.IntFilter;
+import com.franglen.oracle.filter.LongFilter;
 import com.franglen.oracle.generator.Generator;
 import com.franglen.oracle.generator.LinearGenerator;
+import com.franglen.oracle.generator.ObservedLongGenerator;
+import com.franglen.oracle.model.SplittableRandomModel;
 
 
 /**
@@ -38,6 +47,11 @@ public class SeedTrackerTest {
 		}
 	};
 
+	/**
+	 * Only the lower 48 bits of the seed determine the state of the Random object.
+	 */
+	private static final long STATE_ALIAS = 1L << 48;
+
 	private static final long ITERATION_SIZE = 1000;
 
 	@Test
@@ -116,4 +130,176 @@ public class SeedTrackerTest {
 
 		assertEquals(expectedSize, tracker.size());
 	}
+
+	@Test
+	public void testDuplicateStates() {
+		Generator generator = new Generator() {
+			public LongStream stream(long values) {
+				return LongStream.range(0, values).flatMap((long value) -> LongStream.of(value, value + STATE_ALIAS));
+			}
+		};
+		SeedTracker tracker = new SeedTracker(generator);
+
+		tracker.addFilter(PERMIT_ALL_FILTER);
+		tracker.setIterationSize(ITERATION_SIZE);
+		tracker.iterate();
+
+		assertEquals(ITERATION_SIZE, tracker.size());
+		assertEquals(ITERATION_SIZE, tracker.states().distinct().count());
+		assertEquals(2 * ITERATION_SIZE, tracker.seeds().count());
+	}
+
+	@Test
+	public void testDuplicateStatesAcrossIterations() {
+		SeedTracker tracker = new SeedTracker(new Generator() {
+			private long alias = 0;
+
+			public LongStream stream(long values) {
+				return LongStream.of(STATE_ALIAS * alias++);
+			}
+		});
+
+		tracker.addFilter(PERMIT_ALL_FILTER);
+		tracker.iterate();
+		tracker.iterate();
+
+		assertEquals(1, tracker.size());
+		assertEquals(2, tracker.seeds().count());
+	}
+
+	@Test
+	public void testSeedsRemovedWithState() {
+		SeedTracker tracker = new SeedTracker(new LinearGenerator(0));
+
+		tracker.addFilter(PERMIT_ALL_FILTER);
+		tracker.setIterationSize(ITERATION_SIZE);
+		tracker.iterate();
+		tracker.addFilter(PERMIT_NOTHING_FILTER);
+		tracker.iterate();
+
+		assertEquals(0, tracker.size());
+		assertEquals(0, tracker.seeds().count());
+	}
+
+	@Test
+	public void testAddStates() {
+		SeedTracker tracker = new SeedTracker(EMPTY_GENERATOR);
+		long[] states = { 1, 2, 3 };
+
+		tracker.addFilter(PERMIT_ALL_FILTER);
+		tracker.addStates(LongStream.of(states));
+		tracker.iterate();
+
+		assertArrayEquals(states, tracker.states().toArray());
+		assertEquals(3, tracker.seeds().count());
+	}
+
+	@Test
+	public void testCandidateLimit() {
+		int limit = 10;
+		SeedTracker tracker = new SeedTracker(NON_EMPTY_GENERATOR);
+
+		tracker.addFilter(PERMIT_ALL_FILTER);
+		tracker.setCandidateLimit(limit);
+		tracker.setIterationSize(ITERATION_SIZE);
+		tracker.iterate();
+
+		assertEquals(limit, tracker.size());
+		assertEquals(limit, tracker.scores().count());
+	}
+
+	@Test
+	public void testCandidateLimitRejectsExactFilters() {
+		SeedTracker tracker = new SeedTracker(NON_EMPTY_GENERATOR);
+
+		tracker.addFilter(PERMIT_NOTHING_FILTER);
+		tracker.setCandidateLimit(10);
+		tracker.setIterationSize(ITERATION_SIZE);
+		tracker.iterate();
+
+		assertEquals(0, tracker.size());
+	}
+
+	@Test
+	public void testCandidateLimitToleratesWrongObservation() {
+		long seed = 500;
+		Random random = new Random(seed);
+		SeedTracker tracker = new SeedTracker(new LinearGenerator(0));
+
+		for (int i = 0; i < 5; i++) {
+			tracker.addFilter(new ApproximateDoubleFilter(Math.round(random.nextDouble() * 10_000) / 10_000.0, 0.00005));
+		}
+		tracker.addFilter(new ApproximateDoubleFilter(2, 0)); // never matches
+		tracker.setCandidateLimit(1);
+		tracker.setIterationSize(ITERATION_SIZE);
+		tracker.iterate();
+
+		assertArrayEquals(new long[] { seed }, tracker.seeds().toArray());
+		assertArrayEquals(new double[] { 5 }, tracker.scores().toArray(), 0);
+	}
+
+	@Test
+	public void testCandidateLimitAcrossIterations() {
+		long seed = 1500;
+		SeedTracker tracker = new SeedTracker(new LinearGenerator(0));
+
+		tracker.addFilter(new IntFilter(new Random(seed).nextInt()));
+		tracker.setCandidateLimit(1);
+		tracker.setIterationSize(ITERATION_SIZE);
+
+		for (int i = 0; i < 3; i++) {
+			tracker.iterate();
+		}
+
+		assertArrayEquals(new long[] { seed }, tracker.seeds().toArray());
+	}
+
+	@Test
+	public void testCandidateLimitRanksStates() {
+		long seed = 500;
+		Generator generator = (long values) -> LongStream.of(seed, seed + STATE_ALIAS, seed + 1);
+		SeedTracker tracker = new SeedTracker(generator);
+
+		tracker.addFilter(new ApproximateIntFilter(new Random(seed).nextInt(), 0));
+		tracker.setCandidateLimit(2);
+		tracker.iterate();
+
+		assertEquals(2, tracker.size());
+		assertArrayEquals(new long[] { seed, seed + 1, seed + STATE_ALIAS }, tracker.seeds().toArray());
+		assertArrayEquals(new double[] { 1, 0, 1 }, tracker.scores().toArray(), 0);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNegativeCandidateLimit() {
+		new SeedTracker(NON_EMPTY_GENERATOR).setCandidateLimit(-1);
+	}
+
+	@Test
+	public void testModel() {
+		long seed = 1234567890123L;
+		SplittableRandom random = new SplittableRandom(seed);
+		long value = random.nextLong();
+		SeedTracker tracker = new SeedTracker(new ObservedLongGenerator(SplittableRandomModel.INSTANCE, value), SplittableRandomModel.INSTANCE);
+
+		tracker.addFilter(new LongFilter(value));
+		tracker.addFilter(new IntFilter(random.nextInt()));
+		tracker.iterate();
+
+		assertArrayEquals(new long[] { seed }, tracker.seeds().toArray());
+	}
+
+	@Test
+	public void testDenseSurvivors() {
+		long size = 1_000_000;
+		SeedTracker tracker = new SeedTracker(new LinearGenerator(0));
+
+		tracker.addFilter(PERMIT_ALL_FILTER);
+		tracker.setIterationSize(size);
+		tracker.iterate();
+		tracker.iterate();
+
+		assertEquals(2 * size, tracker.size());
+		assertEquals(2 * size, tracker.seeds().count());
+		assertTrue(tracker.sizeInBytes() * 10 < 2 * size * 2 * Long.BYTES);
+	}
 }
@@ -0,0 +1,48 @@
+package com.franglen.oracle;
+
+import java.util.Random;
+
+import com.franglen.oracle.filter.IntFilter;
+import com.franglen.oracle.generator.LinearGenerator;
+
+/**
+ * Measures the cost of each job in a shared scan as jobs are added. This is
+ * run by hand rather than as part of the tests:
+ * 
+ * <pre>
+ * java -cp target/classes:target/test-classes com.franglen.oracle.SharedScanBenchmark [seeds]
+ * </pre>
+ * 
+ * @author matthew
+ */
+public class SharedScanBenchmark {
+
+	private static final int RUNS = 5;
+
+	public static void main(String[] args) {
+		long size = args.length > 0 ? Long.parseLong(args[0]) : 10_000_000;
+
+		for (int jobs = 1; jobs <= 256; jobs *= 4) {
+			long best = Long.MAX_VALUE;
+			for (int run = 0; run < RUNS; run++) {
+				best = Math.min(best, scanTime(jobs, size));
+			}
+			System.out.printf("%4d jobs: %6d ms, %8.3f ms per job%n", jobs, best / 1_000_000, best / 1e6 / jobs);
+		}
+	}
+
+	private static long scanTime(int jobs, long size) {
+		SharedScanTracker tracker = new SharedScanTracker(new LinearGenerator(0));
+		for (int i = 0; i < jobs; i++) {
+			Random random = new Random(i);
+			RecoveryJob job = tracker.addJob();
+			job.addFilter(new IntFilter(random.nextInt()));
+			job.addFilter(new IntFilter(random.nextInt()));
+		}
+		tracker.setIterationSize(size);
+
+		long start = System.nanoTime();
+		tracker.iterate();
+		return System.nanoTime() - start;
+	}
+}
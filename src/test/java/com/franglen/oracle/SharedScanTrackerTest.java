@@ -0,0 +1,185 @@
+package com.franglen.oracle;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.stream.LongStream;
+
+import org.junit.Test;
+
+import com.franglen.oracle.filter.ApproximateIntFilter;
+import com.franglen.oracle.filter.DoubleFilter;
+import com.franglen.oracle.filter.IntFilter;
+import com.franglen.oracle.filter.LongFilter;
+import com.franglen.oracle.generator.LinearGenerator;
+import com.franglen.oracle.generator.ObservedLongGenerator;
+import com.franglen.oracle.model.SplittableRandomModel;
+
+/**
+ * @author matthew
+ *
+ */
+public class SharedScanTrackerTest {
+
+
+	@Test
+	public void testNoJobs() {
+		SharedScanTracker tracker = new SharedScanTracker(new LinearGenerator(0));
+
+		tracker.iterate();
+	}
+
+	@Test
+	public void testManyJobs() {
+		int count = 20;
+		SharedScanTracker tracker = new SharedScanTracker(new LinearGenerator(0));
+		RecoveryJob[] jobs = new RecoveryJob[count];
+
+		for (int i = 0; i < count; i++) {
+			Random random = new Random(i * 37);
+			jobs[i] = tracker.addJob();
+			jobs[i].addFilter(new IntFilter(random.nextInt()));
+			jobs[i].addFilter(new IntFilter(random.nextInt()));
+		}
+		tracker.iterate();
+
+		for (int i = 0; i < count; i++) {
+			assertArrayEquals(new long[] { i * 37 }, jobs[i].seeds().toArray());
+		}
+	}
+
+	@Test
+	public void testFilterAddedLater() {
+		SharedScanTracker tracker = new SharedScanTracker(new LinearGenerator(0));
+		RecoveryJob job = tracker.addJob();
+
+		tracker.iterate();
+
+		job.addFilter(new IntFilter(new Random(10).nextInt()));
+		tracker.iterate();
+		assertArrayEquals(new long[] { 10 }, job.seeds().toArray());
+	}
+
+	@Test
+	public void testJobAddedLater() {
+		SharedScanTracker tracker = new SharedScanTracker(new LinearGenerator(0));
+		RecoveryJob first = tracker.addJob();
+
+		first.addFilter(new IntFilter(new Random(10).nextInt()));
+		tracker.iterate();
+
+		RecoveryJob second = tracker.addJob();
+		second.addFilter(new IntFilter(new Random(10).nextInt()));
+		tracker.iterate();
+
+		assertArrayEquals(new long[] { 10 }, first.seeds().toArray());
+		assertEquals(0, second.size());
+	}
+
+	@Test
+	public void testJobAddedLaterSeesNewSeeds() {
+		SharedScanTracker tracker = new SharedScanTracker(new LinearGenerator(0));
+		tracker.setIterationSize(10);
+		tracker.addJob();
+		tracker.iterate();
+
+		RecoveryJob second = tracker.addJob();
+		tracker.iterate();
+
+		assertArrayEquals(LongStream.range(10, 20).toArray(), second.seeds().toArray());
+	}
+
+	@Test
+	public void testModel() {
+		long seed = 1234567890123L;
+		SplittableRandom random = new SplittableRandom(seed);
+		long value = random.nextLong();
+		SharedScanTracker tracker = new SharedScanTracker(new ObservedLongGenerator(SplittableRandomModel.INSTANCE, value), SplittableRandomModel.INSTANCE);
+		RecoveryJob job = tracker.addJob();
+
+		job.addFilter(new LongFilter(value));
+		tracker.iterate();
+
+		assertArrayEquals(new long[] { seed }, job.seeds().toArray());
+	}
+
+	@Test
+	public void testMixedJobs() {
+		SharedScanTracker tracker = new SharedScanTracker(new LinearGenerator(0));
+		RecoveryJob intJob = tracker.addJob(), longJob = tracker.addJob(), doubleJob = tracker.addJob();
+		RecoveryJob approximateJob = tracker.addJob(), sharedKeyJob = tracker.addJob();
+
+		intJob.addFilter(new IntFilter(new Random(100).nextInt()));
+		longJob.addFilter(new LongFilter(new Random(200).nextLong()));
+		doubleJob.addFilter(new DoubleFilter(new Random(300).nextDouble()));
+		approximateJob.addFilter(new ApproximateIntFilter(new Random(400).nextInt(), 0));
+		sharedKeyJob.addFilter(new IntFilter(new Random(100).nextInt() ^ 1));
+		tracker.iterate();
+
+		assertArrayEquals(new long[] { 100 }, intJob.seeds().toArray());
+		assertArrayEquals(new long[] { 200 }, longJob.seeds().toArray());
+		assertArrayEquals(new long[] { 300 }, doubleJob.seeds().toArray());
+		assertArrayEquals(new long[] { 400 }, approximateJob.seeds().toArray());
+		assertEquals(0, sharedKeyJob.size());
+	}
+
+	/**
+	 * Each candidate is only evaluated by the jobs whose first observation it
+	 * could produce, along with the jobs which cannot be indexed.
+	 */
+	@Test
+	public void testIndexSkipsOtherJobs() {
+		int jobs = 32, size = 1000;
+		SharedScanTracker tracker = new SharedScanTracker(new LinearGenerator(0));
+		for (int i = 0; i < jobs; i++) {
+			Random random = new Random(i);
+			RecoveryJob job = tracker.addJob();
+			job.addFilter(new IntFilter(random.nextInt()));
+			job.addFilter(new IntFilter(random.nextInt()));
+		}
+		tracker.addJob().addFilter(new ApproximateIntFilter(0, 1));
+		tracker.setIterationSize(size);
+		tracker.iterate();
+
+		assertEquals(jobs + size, tracker.getEvaluationCount());
+	}
+
+	@Test
+	public void testSurvivorLimit() {
+		SharedScanTracker tracker = new SharedScanTracker(new LinearGenerator(0));
+		RecoveryJob limited = tracker.addJob(), exact = tracker.addJob();
+
+		limited.addFilter(new ApproximateIntFilter(0, 1L << 32));
+		limited.setSurvivorLimit(10);
+		exact.addFilter(new IntFilter(new Random(10).nextInt()));
+		tracker.setIterationSize(1000);
+		tracker.iterate();
+
+		assertTrue(limited.isOverflowed());
+		assertEquals(0, limited.size());
+		assertArrayEquals(new long[] { 10 }, exact.seeds().toArray());
+	}
+
+	@Test
+	public void testFailedJob() {
+		int failingValue = new Random(500).nextInt();
+		SharedScanTracker tracker = new SharedScanTracker(new LinearGenerator(0));
+		RecoveryJob failing = tracker.addJob(), exact = tracker.addJob();
+
+		failing.addFilter((Random random) -> {
+			if (random.nextInt() == failingValue) {
+				throw new IllegalStateException("failed");
+			}
+			return false;
+		});
+		exact.addFilter(new IntFilter(new Random(10).nextInt()));
+		tracker.setIterationSize(1000);
+		tracker.iterate();
+
+		assertTrue(failing.getFailure() instanceof IllegalStateException);
+		assertArrayEquals(new long[] { 10 }, exact.seeds().toArray());
+	}
+}
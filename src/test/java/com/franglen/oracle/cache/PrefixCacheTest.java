@@ -0,0 +1,138 @@
+package com.franglen.oracle.cache;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.franglen.oracle.filter.DoubleFilter;
+import com.franglen.oracle.filter.Filter;
+import com.franglen.oracle.filter.GaussianFilter;
+import com.franglen.oracle.filter.IntFilter;
+import com.franglen.oracle.filter.LongFilter;
+import com.franglen.oracle.model.JavaRandomModel;
+
+/**
+ * @author matthew
+ *
+ */
+public class PrefixCacheTest {
+
+	private static final JavaRandomModel MODEL = JavaRandomModel.INSTANCE;
+	private static final long RANGE_SIZE = 10_000;
+	private static final long SEED = 1234;
+	private static final long MAXIMUM_BYTES = 1 << 20;
+
+	private static final Filter PERMIT_ALL_FILTER = new Filter() {
+		public boolean accepts(Random value) {
+			value.nextInt();
+			return true;
+		}
+	};
+
+	private static final Filter GAUSSIAN_FILTER = new Filter() {
+		public boolean accepts(Random value) {
+			value.nextGaussian();
+			return true;
+		}
+	};
+
+	@Test
+	public void testMiss() {
+		PrefixCache cache = new PrefixCache(MAXIMUM_BYTES);
+
+		assertArrayEquals(new long[] { MODEL.toState(SEED) }, cache.recover(MODEL, 0, RANGE_SIZE, ints(SEED, 3)).stream().toArray());
+		assertEquals(1, cache.getMissCount());
+		assertEquals(0, cache.getHitCount());
+		assertTrue(cache.getSizeInBytes() > 0);
+	}
+
+	@Test
+	public void testFullHit() {
+		PrefixCache cache = new PrefixCache(MAXIMUM_BYTES);
+
+		cache.recover(MODEL, 0, RANGE_SIZE, ints(SEED, 3));
+
+		assertArrayEquals(new long[] { MODEL.toState(SEED) }, cache.recover(MODEL, 0, RANGE_SIZE, ints(SEED, 3)).stream().toArray());
+		assertEquals(1, cache.getHitCount());
+	}
+
+	@Test
+	public void testSharedPrefix() {
+		PrefixCache cache = new PrefixCache(MAXIMUM_BYTES);
+		Random random = new Random(SEED);
+		Filter first = new IntFilter(random.nextInt()), second = new IntFilter(random.nextInt());
+		Random other = new Random(SEED + 1);
+
+		cache.recover(MODEL, 0, RANGE_SIZE, Arrays.asList(first, second, new LongFilter(other.nextLong())));
+		List<Filter> diverging = Arrays.asList(first, second, new DoubleFilter(random.nextDouble()));
+
+		assertArrayEquals(new long[] { MODEL.toState(SEED) }, cache.recover(MODEL, 0, RANGE_SIZE, diverging).stream().toArray());
+		assertEquals(1, cache.getHitCount());
+		assertEquals(1, cache.getMissCount());
+	}
+
+	@Test
+	public void testDifferentRange() {
+		PrefixCache cache = new PrefixCache(MAXIMUM_BYTES);
+
+		cache.recover(MODEL, 0, RANGE_SIZE, ints(SEED, 3));
+		cache.recover(MODEL, RANGE_SIZE, RANGE_SIZE, ints(SEED, 3));
+
+		assertEquals(2, cache.getMissCount());
+	}
+
+	@Test
+	public void testEviction() {
+		long maximumBytes = 16 * 3;
+		PrefixCache cache = new PrefixCache(maximumBytes);
+
+		for (long seed = 0; seed < 10; seed++) {
+			assertArrayEquals(new long[] { MODEL.toState(seed) }, cache.recover(MODEL, 0, RANGE_SIZE, ints(seed, 2)).stream().toArray());
+		}
+
+		assertTrue(cache.getSizeInBytes() <= maximumBytes);
+		assertTrue(cache.getEvictionCount() > 0);
+	}
+
+	@Test
+	public void testLargePrefixNotCached() {
+		PrefixCache cache = new PrefixCache(16 * 100);
+		List<Filter> filters = Arrays.asList(PERMIT_ALL_FILTER, new LongFilter(new Random(SEED + 1).nextLong()));
+
+		cache.recover(MODEL, 0, RANGE_SIZE, filters);
+		cache.recover(MODEL, 0, RANGE_SIZE, Arrays.asList(PERMIT_ALL_FILTER, new IntFilter(0)));
+
+		assertEquals(2, cache.getMissCount());
+	}
+
+	@Test
+	public void testCachedGaussianNotResumed() {
+		PrefixCache cache = new PrefixCache(MAXIMUM_BYTES);
+		Random random = new Random(SEED);
+		random.nextGaussian();
+		Filter gaussian = new GaussianFilter(random.nextGaussian());
+
+		cache.recover(MODEL, 0, RANGE_SIZE, Arrays.asList(GAUSSIAN_FILTER, new IntFilter(0)));
+
+		assertEquals(0, cache.getSizeInBytes());
+		assertArrayEquals(new long[] { MODEL.toState(SEED) }, cache.recover(MODEL, 0, RANGE_SIZE, Arrays.asList(GAUSSIAN_FILTER, gaussian)).stream().toArray());
+		assertEquals(2, cache.getMissCount());
+	}
+
+	private static List<Filter> ints(long seed, int count) {
+		Random random = new Random(seed);
+		Filter[] filters = new Filter[count];
+
+		for (int i = 0; i < count; i++) {
+			filters[i] = new IntFilter(random.nextInt());
+		}
+
+		return Arrays.asList(filters);
+	}
+}
@@ -0,0 +1,84 @@
+package com.franglen.oracle.collection;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.stream.LongStream;
+
+import org.junit.Test;
+
+/**
+ * @author matthew
+ *
+ */
+public class BoundedHeapTest {
+
+	private static final double DELTA = 0;
+
+	@Test
+	public void testInitialState() {
+		BoundedHeap heap = new BoundedHeap(10);
+
+		assertEquals(0, heap.size());
+		assertArrayEquals(new long[0], heap.values());
+	}
+
+	@Test
+	public void testBelowCapacity() {
+		BoundedHeap heap = new BoundedHeap(10);
+
+		heap.offer(1, 1);
+		heap.offer(3, 3);
+		heap.offer(2, 2);
+
+		assertArrayEquals(new long[] { 3, 2, 1 }, heap.values());
+		assertArrayEquals(new double[] { 3, 2, 1 }, heap.scores(), DELTA);
+	}
+
+	@Test
+	public void testKeepsHighestScores() {
+		BoundedHeap heap = new BoundedHeap(3);
+
+		LongStream.range(0, 1000).forEach((long value) -> heap.offer(value, (value * 7919) % 1000));
+
+		assertEquals(3, heap.size());
+		assertArrayEquals(new double[] { 999, 998, 997 }, heap.scores(), DELTA);
+	}
+
+	@Test
+	public void testGrowsToLargeCapacity() {
+		BoundedHeap heap = new BoundedHeap(Integer.MAX_VALUE - 8);
+
+		LongStream.range(0, 1000).forEach((long value) -> heap.offer(value, value));
+
+		assertEquals(1000, heap.size());
+		assertEquals(999, heap.values()[0]);
+	}
+
+	@Test
+	public void testAddAll() {
+		BoundedHeap first = new BoundedHeap(2), second = new BoundedHeap(2);
+
+		first.offer(1, 1);
+		first.offer(4, 4);
+		second.offer(2, 2);
+		second.offer(3, 3);
+		first.addAll(second);
+
+		assertArrayEquals(new long[] { 4, 3 }, first.values());
+	}
+
+	@Test
+	public void testParallelCollect() {
+		int capacity = 10;
+		long count = 100_000;
+		BoundedHeap heap = LongStream.range(0, count).parallel().collect(() -> new BoundedHeap(capacity), (BoundedHeap h, long value) -> h.offer(value, value), BoundedHeap::addAll);
+
+		assertArrayEquals(LongStream.range(count - capacity, count).map((long value) -> count - capacity + count - 1 - value).toArray(), heap.values());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidCapacity() {
+		new BoundedHeap(0);
+	}
+}
@@ -0,0 +1,126 @@
+package com.franglen.oracle.collection;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+import java.util.stream.LongStream;
+
+import org.junit.Test;
+
+/**
+ * @author matthew
+ *
+ */
+public class CandidateSetTest {
+
+	private static final long DENSE_SIZE = 1_000_000;
+
+	@Test
+	public void testEmpty() {
+		CandidateSet set = CandidateSet.empty();
+
+		assertEquals(0, set.size());
+		assertFalse(set.contains(0));
+		assertEquals(0, set.stream().count());
+	}
+
+	@Test
+	public void testSparse() {
+		long[] values = { 1L << 40, -5, 1L << 20, 7 };
+		CandidateSet set = CandidateSet.of(values.clone());
+
+		assertTrue(set instanceof ArrayCandidateSet);
+		assertEquals(values.length, set.size());
+		assertArrayEquals(new long[] { -5, 7, 1L << 20, 1L << 40 }, set.stream().toArray());
+		assertTrue(set.contains(7));
+		assertFalse(set.contains(8));
+	}
+
+	@Test
+	public void testDense() {
+		CandidateSet set = CandidateSet.of(LongStream.range(0, DENSE_SIZE).toArray());
+
+		assertTrue(set instanceof CompressedCandidateSet);
+		assertEquals(DENSE_SIZE, set.size());
+		assertArrayEquals(LongStream.range(0, DENSE_SIZE).toArray(), set.stream().toArray());
+		assertTrue(set.contains(DENSE_SIZE - 1));
+		assertFalse(set.contains(DENSE_SIZE));
+		assertFalse(set.contains(-1));
+	}
+
+	@Test
+	public void testDenseIsSmaller() {
+		long[] values = new Random(0).longs(DENSE_SIZE, 0, DENSE_SIZE * 2).toArray();
+		CandidateSet set = CandidateSet.of(values);
+
+		assertTrue(set.sizeInBytes() * 10 < set.size() * Long.BYTES);
+	}
+
+	@Test
+	public void testNegativeDense() {
+		long[] values = LongStream.range(-DENSE_SIZE / 2, DENSE_SIZE / 2).toArray();
+		CandidateSet set = CandidateSet.of(values.clone());
+
+		assertArrayEquals(values, set.stream().toArray());
+		assertTrue(set.contains(-1));
+	}
+
+	@Test
+	public void testRepeats() {
+		CandidateSet set = CandidateSet.of(3, 1, 3, 2, 1);
+
+		assertArrayEquals(new long[] { 1, 2, 3 }, set.stream().toArray());
+	}
+
+	@Test
+	public void testFilter() {
+		CandidateSet set = CandidateSet.of(LongStream.range(0, DENSE_SIZE).toArray());
+		CandidateSet filtered = set.filter((long value) -> value % 3 == 0);
+
+		assertArrayEquals(LongStream.range(0, DENSE_SIZE).filter((long value) -> value % 3 == 0).toArray(), filtered.stream().toArray());
+		assertEquals((DENSE_SIZE + 2) / 3, filtered.size());
+	}
+
+	@Test
+	public void testFilterToSparse() {
+		CandidateSet set = CandidateSet.of(LongStream.range(0, DENSE_SIZE).toArray());
+		CandidateSet filtered = set.filter((long value) -> value % 10_000 == 0);
+
+		assertTrue(filtered instanceof ArrayCandidateSet);
+		assertArrayEquals(LongStream.range(0, DENSE_SIZE).filter((long value) -> value % 10_000 == 0).toArray(), filtered.stream().toArray());
+	}
+
+	@Test
+	public void testUnionNothing() {
+		CandidateSet set = CandidateSet.of(LongStream.range(0, DENSE_SIZE).toArray());
+
+		assertSame(set, set.union(new long[0]));
+	}
+
+	@Test
+	public void testFilterEverything() {
+		CandidateSet set = CandidateSet.of(LongStream.range(0, DENSE_SIZE).toArray());
+
+		assertEquals(0, set.filter((long value) -> false).size());
+		assertEquals(0, CandidateSet.of(1, 2, 3).filter((long value) -> false).size());
+	}
+
+	@Test
+	public void testUnion() {
+		CandidateSet set = CandidateSet.of(LongStream.range(0, DENSE_SIZE).filter((long value) -> value % 2 == 0).toArray());
+		CandidateSet union = set.union(LongStream.range(0, DENSE_SIZE).filter((long value) -> value % 2 == 1).toArray());
+
+		assertArrayEquals(LongStream.range(0, DENSE_SIZE).toArray(), union.stream().toArray());
+	}
+
+	@Test
+	public void testUnionRepeats() {
+		CandidateSet union = CandidateSet.of(1, 3, 5).union(new long[] { 5, 4, 3, 3 });
+
+		assertArrayEquals(new long[] { 1, 3, 4, 5 }, union.stream().toArray());
+	}
+}
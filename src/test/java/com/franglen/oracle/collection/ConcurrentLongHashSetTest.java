@@ -0,0 +1,75 @@
+package com.franglen.oracle.collection;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.stream.LongStream;
+
+import org.junit.Test;
+
+/**
+ * @author matthew
+ *
+ */
+public class ConcurrentLongHashSetTest {
+
+	@Test
+	public void testInitialState() {
+		ConcurrentLongHashSet set = new ConcurrentLongHashSet(10);
+
+		assertEquals(0, set.size());
+		assertFalse(set.contains(0));
+		assertFalse(set.contains(1));
+	}
+
+	@Test
+	public void testAdd() {
+		ConcurrentLongHashSet set = new ConcurrentLongHashSet(10);
+
+		assertTrue(set.add(1));
+		assertFalse(set.add(1));
+		assertTrue(set.contains(1));
+		assertEquals(1, set.size());
+	}
+
+	@Test
+	public void testAddZero() {
+		ConcurrentLongHashSet set = new ConcurrentLongHashSet(10);
+
+		assertTrue(set.add(0));
+		assertFalse(set.add(0));
+		assertTrue(set.contains(0));
+		assertEquals(1, set.size());
+		assertEquals(0, set.stream().sum());
+	}
+
+	@Test
+	public void testStream() {
+		long count = 1000;
+		ConcurrentLongHashSet set = new ConcurrentLongHashSet((int) count);
+
+		LongStream.range(0, count).forEach(set::add);
+
+		assertEquals(count, set.stream().count());
+		assertEquals(LongStream.range(0, count).sum(), set.stream().sum());
+	}
+
+	@Test
+	public void testContendedAdd() {
+		int count = 100_000, repeats = 4;
+		ConcurrentLongHashSet set = new ConcurrentLongHashSet(count);
+
+		long added = LongStream.range(0, count * repeats).parallel().map((long value) -> value % count).filter(set::add).count();
+
+		assertEquals(count, added);
+		assertEquals(count, set.size());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testFull() {
+		ConcurrentLongHashSet set = new ConcurrentLongHashSet(1);
+
+		LongStream.range(1, 10).forEach(set::add);
+	}
+}
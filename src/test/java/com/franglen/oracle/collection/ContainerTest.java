@@ -0,0 +1,75 @@
+package com.franglen.oracle.collection;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+/**
+ * @author matthew
+ *
+ */
+public class ContainerTest {
+
+	@Test
+	public void testArray() {
+		char[] values = toChars(IntStream.range(0, 100).map((int value) -> value * 3));
+		Container container = Container.of(values, values.length);
+
+		assertTrue(container instanceof ArrayContainer);
+		assertContents(values, container);
+	}
+
+	@Test
+	public void testBitmap() {
+		char[] values = toChars(IntStream.range(0, Container.CAPACITY / 2).map((int value) -> value * 2));
+		Container container = Container.of(values, values.length);
+
+		assertTrue(container instanceof BitmapContainer);
+		assertContents(values, container);
+	}
+
+	@Test
+	public void testRun() {
+		char[] values = toChars(IntStream.concat(IntStream.range(10, 5000), IntStream.range(6000, Container.CAPACITY)));
+		Container container = Container.of(values, values.length);
+
+		assertTrue(container instanceof RunContainer);
+		assertContents(values, container);
+		assertFalse(container.contains((char) 0));
+		assertFalse(container.contains((char) 5000));
+	}
+
+	@Test
+	public void testPartialBuffer() {
+		char[] values = { 1, 2, 3, 4 };
+		Container container = Container.of(values, 2);
+
+		assertEquals(2, container.cardinality());
+		assertFalse(container.contains((char) 3));
+	}
+
+	private static void assertContents(char[] expected, Container container) {
+		assertEquals(expected.length, container.cardinality());
+		assertArrayEquals(expected, container.toArray());
+
+		for (char value : expected) {
+			assertTrue(container.contains(value));
+		}
+	}
+
+	private static char[] toChars(IntStream values) {
+		int[] ints = values.toArray();
+		char[] chars = new char[ints.length];
+
+		for (int i = 0; i < ints.length; i++) {
+			chars[i] = (char) ints[i];
+		}
+
+		return chars;
+	}
+}
@@ -0,0 +1,53 @@
+package com.franglen.oracle.collection;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.stream.LongStream;
+
+import org.junit.Test;
+
+/**
+ * @author matthew
+ *
+ */
+public class LongListTest {
+
+	@Test
+	public void testInitialState() {
+		LongList list = new LongList();
+
+		assertEquals(0, list.size());
+		assertArrayEquals(new long[0], list.toArray());
+	}
+
+	@Test
+	public void testAdd() {
+		long count = 1000;
+		LongList list = new LongList();
+
+		LongStream.range(0, count).forEach(list::add);
+
+		assertEquals(count, list.size());
+		assertArrayEquals(LongStream.range(0, count).toArray(), list.toArray());
+	}
+
+	@Test
+	public void testAddAll() {
+		LongList first = new LongList(), second = new LongList();
+
+		LongStream.range(0, 10).forEach(first::add);
+		LongStream.range(10, 100).forEach(second::add);
+		first.addAll(second);
+
+		assertArrayEquals(LongStream.range(0, 100).toArray(), first.toArray());
+	}
+
+	@Test
+	public void testParallelCollect() {
+		long count = 100_000;
+		LongList list = LongStream.range(0, count).parallel().collect(LongList::new, LongList::add, LongList::addAll);
+
+		assertArrayEquals(LongStream.range(0, count).toArray(), list.toArray());
+	}
+}
@@ -0,0 +1,63 @@
+package com.franglen.oracle.filter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * @author matthew
+ *
+ */
+public class ApproximateFloatFilterTest {
+
+	/**
+	 * Copied from multiplier constant in java.util.Random
+	 */
+	private static final long SEED_MULTIPLIER = 0x5DEECE66DL;
+	/**
+	 * Generates a seed with zero bits set after initial tampering.
+	 */
+	private static final long GOOD_STARTING_SEED = SEED_MULTIPLIER;
+	/**
+	 * Generates a seed with every significant bit set after initial tampering.
+	 */
+	private static final long BAD_STARTING_SEED = ((1L << 48) - 1) ^ SEED_MULTIPLIER;
+
+	private static final double DELTA = 0;
+
+	@Test
+	public void testAcceptExact() {
+		float expected = new Random(GOOD_STARTING_SEED).nextFloat();
+		ApproximateFloatFilter filter = new ApproximateFloatFilter(expected, 0);
+
+		assertTrue(filter.accepts(new Random(GOOD_STARTING_SEED)));
+		assertEquals(1, filter.score(new Random(GOOD_STARTING_SEED)), DELTA);
+	}
+
+	@Test
+	public void testAcceptRounded() {
+		float expected = new Random(GOOD_STARTING_SEED).nextFloat();
+		ApproximateFloatFilter filter = new ApproximateFloatFilter(Math.round(expected * 100) / 100f, 0.005f);
+
+		assertTrue(filter.accepts(new Random(GOOD_STARTING_SEED)));
+		assertEquals(1, filter.score(new Random(GOOD_STARTING_SEED)), DELTA);
+	}
+
+	@Test
+	public void testReject() {
+		float expected = new Random(GOOD_STARTING_SEED).nextFloat();
+		ApproximateFloatFilter filter = new ApproximateFloatFilter(expected, 0.005f);
+
+		assertFalse(filter.accepts(new Random(BAD_STARTING_SEED)));
+		assertEquals(0, filter.score(new Random(BAD_STARTING_SEED)), DELTA);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNegativeTolerance() {
+		new ApproximateFloatFilter(0, -0.005f);
+	}
+}
@@ -0,0 +1,85 @@
+package com.franglen.oracle.filter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.franglen.oracle.model.JavaRandomModel;
+
+/**
+ * @author matthew
+ *
+ */
+public class BoundedDrawFilterTest {
+
+	/**
+	 * Copied from multiplier constant in java.util.Random
+	 */
+	private static final long SEED_MULTIPLIER = 0x5DEECE66DL;
+	/**
+	 * Generates a seed with zero bits set after initial tampering.
+	 */
+	private static final long GOOD_STARTING_SEED = SEED_MULTIPLIER;
+	/**
+	 * Generates a seed with every significant bit set after initial tampering.
+	 */
+	private static final long BAD_STARTING_SEED = ((1L << 48) - 1) ^ SEED_MULTIPLIER;
+	/**
+	 * Rejects almost half of the draws, so most sequences include a retry.
+	 */
+	private static final int LARGE_BOUND = (1 << 30) + 1;
+
+	private static final int[] BOUNDS = { 10, 16, LARGE_BOUND, LARGE_BOUND, LARGE_BOUND, LARGE_BOUND };
+
+	@Test
+	public void testAccept() {
+		BoundedDrawFilter filter = new BoundedDrawFilter(BOUNDS, draws(GOOD_STARTING_SEED));
+
+		assertTrue(filter.accepts(new Random(GOOD_STARTING_SEED)));
+	}
+
+	@Test
+	public void testAcceptModel() {
+		BoundedDrawFilter filter = new BoundedDrawFilter(BOUNDS, draws(GOOD_STARTING_SEED));
+
+		assertTrue(filter.accepts(JavaRandomModel.INSTANCE.random(JavaRandomModel.INSTANCE.toState(GOOD_STARTING_SEED))));
+	}
+
+	@Test
+	public void testReject() {
+		BoundedDrawFilter filter = new BoundedDrawFilter(BOUNDS, draws(GOOD_STARTING_SEED));
+
+		assertFalse(filter.accepts(new Random(BAD_STARTING_SEED)));
+		assertFalse(filter.accepts(JavaRandomModel.INSTANCE.random(JavaRandomModel.INSTANCE.toState(BAD_STARTING_SEED))));
+	}
+
+	@Test
+	public void testEquals() {
+		assertEquals(new BoundedDrawFilter(BOUNDS, draws(GOOD_STARTING_SEED)), new BoundedDrawFilter(BOUNDS, draws(GOOD_STARTING_SEED)));
+		assertEquals(new BoundedDrawFilter(BOUNDS, draws(GOOD_STARTING_SEED)).hashCode(), new BoundedDrawFilter(BOUNDS, draws(GOOD_STARTING_SEED)).hashCode());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testDrawOutsideBound() {
+		new BoundedDrawFilter(new int[] { 10 }, new int[] { 10 });
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testMissingDraw() {
+		new BoundedDrawFilter(new int[] { 10, 10 }, new int[] { 1 });
+	}
+
+	private static int[] draws(long seed) {
+		Random random = new Random(seed);
+		int[] draws = new int[BOUNDS.length];
+
+		for (int i = 0; i < BOUNDS.length; i++) {
+			draws[i] = random.nextInt(BOUNDS[i]);
+		}
+		return draws;
+	}
+}
@@ -0,0 +1,91 @@
+package com.franglen.oracle.filter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.franglen.oracle.model.JavaRandomModel;
+import com.franglen.oracle.model.ModelRandom;
+
+/**
+ * @author matthew
+ *
+ */
+public class GaussianFilterTest {
+
+	/**
+	 * Copied from multiplier constant in java.util.Random
+	 */
+	private static final long SEED_MULTIPLIER = 0x5DEECE66DL;
+	/**
+	 * Generates a seed with zero bits set after initial tampering.
+	 */
+	private static final long GOOD_STARTING_SEED = SEED_MULTIPLIER;
+	/**
+	 * Generates a seed with every significant bit set after initial tampering.
+	 */
+	private static final long BAD_STARTING_SEED = ((1L << 48) - 1) ^ SEED_MULTIPLIER;
+
+	private static final JavaRandomModel MODEL = JavaRandomModel.INSTANCE;
+
+	@Test
+	public void testAccept() {
+		GaussianFilter filter = new GaussianFilter(new Random(GOOD_STARTING_SEED).nextGaussian());
+
+		assertTrue(filter.accepts(new Random(GOOD_STARTING_SEED)));
+		assertTrue(filter.accepts(MODEL.random(MODEL.toState(GOOD_STARTING_SEED))));
+	}
+
+	@Test
+	public void testReject() {
+		GaussianFilter filter = new GaussianFilter(new Random(GOOD_STARTING_SEED).nextGaussian());
+
+		assertFalse(filter.accepts(new Random(BAD_STARTING_SEED)));
+		assertFalse(filter.accepts(MODEL.random(MODEL.toState(BAD_STARTING_SEED))));
+	}
+
+	@Test
+	public void testCachedPair() {
+		Random expected = new Random(GOOD_STARTING_SEED);
+		GaussianFilter first = new GaussianFilter(expected.nextGaussian());
+		GaussianFilter second = new GaussianFilter(expected.nextGaussian());
+		IntFilter next = new IntFilter(expected.nextInt());
+		ModelRandom random = MODEL.random(MODEL.toState(GOOD_STARTING_SEED));
+
+		assertTrue(first.accepts(random));
+		assertTrue(random.hasCachedValues());
+		assertTrue(second.accepts(random));
+		assertFalse(random.hasCachedValues());
+		assertTrue(next.accepts(random));
+	}
+
+	@Test
+	public void testMatchesRandom() {
+		for (long seed = 0; seed < 10_000; seed++) {
+			Random expected = new Random(seed);
+			GaussianFilter filter = new GaussianFilter(expected.nextGaussian());
+			ModelRandom random = MODEL.random(MODEL.toState(seed));
+
+			assertTrue(filter.accepts(random));
+			assertEquals(expected.nextGaussian(), random.nextGaussian(), 0);
+			assertEquals(expected.nextInt(), random.nextInt());
+		}
+	}
+
+	@Test
+	public void testRejectsOtherStates() {
+		double result = new Random(GOOD_STARTING_SEED).nextGaussian();
+		GaussianFilter filter = new GaussianFilter(result);
+		ModelRandom random = MODEL.random(0);
+		long goodState = MODEL.toState(GOOD_STARTING_SEED);
+
+		for (long state = 0; state < 100_000; state++) {
+			random.reset(state);
+			assertEquals(state == goodState, filter.accepts(random));
+		}
+	}
+}
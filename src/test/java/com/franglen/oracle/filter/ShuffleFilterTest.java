@@ -0,0 +1,94 @@
+package com.franglen.oracle.filter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+import com.franglen.oracle.SeedTracker;
+import com.franglen.oracle.generator.LinearGenerator;
+import com.franglen.oracle.model.JavaRandomModel;
+
+/**
+ * @author matthew
+ *
+ */
+public class ShuffleFilterTest {
+
+	/**
+	 * Copied from multiplier constant in java.util.Random
+	 */
+	private static final long SEED_MULTIPLIER = 0x5DEECE66DL;
+	/**
+	 * Generates a seed with zero bits set after initial tampering.
+	 */
+	private static final long GOOD_STARTING_SEED = SEED_MULTIPLIER;
+	/**
+	 * Generates a seed with every significant bit set after initial tampering.
+	 */
+	private static final long BAD_STARTING_SEED = ((1L << 48) - 1) ^ SEED_MULTIPLIER;
+
+	private static final List<Integer> DECK = IntStream.range(0, 52).boxed().collect(Collectors.toList());
+
+	@Test
+	public void testAccept() {
+		ShuffleFilter filter = new ShuffleFilter(DECK, shuffle(DECK, GOOD_STARTING_SEED));
+
+		assertTrue(filter.accepts(new Random(GOOD_STARTING_SEED)));
+		assertTrue(filter.accepts(JavaRandomModel.INSTANCE.random(JavaRandomModel.INSTANCE.toState(GOOD_STARTING_SEED))));
+	}
+
+	@Test
+	public void testReject() {
+		ShuffleFilter filter = new ShuffleFilter(DECK, shuffle(DECK, GOOD_STARTING_SEED));
+
+		assertFalse(filter.accepts(new Random(BAD_STARTING_SEED)));
+	}
+
+	@Test
+	public void testSequentialList() {
+		List<String> original = new LinkedList<>(Arrays.asList("a", "b", "c", "d", "e", "f", "g"));
+		List<String> shuffled = new LinkedList<>(original);
+		Collections.shuffle(shuffled, new Random(GOOD_STARTING_SEED));
+
+		assertTrue(new ShuffleFilter(original, shuffled).accepts(new Random(GOOD_STARTING_SEED)));
+	}
+
+	@Test
+	public void testRecover() {
+		long seed = 4321;
+		SeedTracker tracker = new SeedTracker(new LinearGenerator(0));
+		tracker.addFilter(new ShuffleFilter(DECK, shuffle(DECK, seed)));
+
+		tracker.iterate();
+
+		assertEquals(1, tracker.size());
+		assertEquals(seed, tracker.seeds().findFirst().getAsLong());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNotPermutation() {
+		new ShuffleFilter(Arrays.asList(1, 2, 3), Arrays.asList(1, 2, 4));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testDuplicates() {
+		new ShuffleFilter(Arrays.asList(1, 1, 2), Arrays.asList(1, 2, 1));
+	}
+
+	private static <T> List<T> shuffle(List<T> original, long seed) {
+		List<T> shuffled = new ArrayList<>(original);
+		Collections.shuffle(shuffled, new Random(seed));
+		return shuffled;
+	}
+}
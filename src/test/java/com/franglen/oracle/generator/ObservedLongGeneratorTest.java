@@ -0,0 +1,48 @@
+package com.franglen.oracle.generator;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+import java.util.SplittableRandom;
+
+import org.junit.Test;
+
+import com.franglen.oracle.model.JavaRandomModel;
+import com.franglen.oracle.model.SplittableRandomModel;
+
+/**
+ * @author matthew
+ *
+ */
+public class ObservedLongGeneratorTest {
+
+	private static final long SEED = 1234567890123L;
+
+	@Test
+	public void testSplittableRandom() {
+		long value = new SplittableRandom(SEED).nextLong();
+		ObservedLongGenerator generator = new ObservedLongGenerator(SplittableRandomModel.INSTANCE, value);
+
+		assertArrayEquals(new long[] { SEED }, generator.stream(10).toArray());
+		assertEquals(0, generator.stream(10).count());
+	}
+
+	@Test
+	public void testJavaRandom() {
+		JavaRandomModel model = JavaRandomModel.INSTANCE;
+		long state = model.toState(SEED), value = new Random(SEED).nextLong();
+		ObservedLongGenerator generator = new ObservedLongGenerator(model, value);
+
+		assertTrue(generator.stream(Long.MAX_VALUE).map(model::toState).anyMatch((long candidate) -> candidate == state));
+	}
+
+	@Test
+	public void testRangeRespected() {
+		long value = new Random(SEED).nextLong();
+		ObservedLongGenerator generator = new ObservedLongGenerator(JavaRandomModel.INSTANCE, value);
+
+		assertEquals(0, generator.stream(0).count());
+	}
+}
@@ -0,0 +1,46 @@
+package com.franglen.oracle.model;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * @author matthew
+ *
+ */
+public class GaussianObservationTest {
+
+	@Test
+	public void testBoundsAcceptProducingPairs() {
+		Random random = new Random(1234);
+
+		for (int i = 0; i < 100_000; i++) {
+			double v1, v2, s;
+			do {
+				v1 = 2 * random.nextDouble() - 1;
+				v2 = 2 * random.nextDouble() - 1;
+				s = v1 * v1 + v2 * v2;
+			}
+			while (s >= 1 || s == 0);
+
+			GaussianObservation observation = new GaussianObservation(v1 * StrictMath.sqrt(-2 * StrictMath.log(s) / s));
+
+			assertTrue(observation.mayStartWith(v1));
+			assertTrue(observation.mayProduce(v1, s));
+		}
+	}
+
+	@Test
+	public void testSign() {
+		assertFalse(new GaussianObservation(1).mayStartWith(-0.5));
+		assertFalse(new GaussianObservation(-1).mayStartWith(0.5));
+	}
+
+	@Test
+	public void testFirstLimit() {
+		assertFalse(new GaussianObservation(3).mayStartWith(0.5));
+	}
+}
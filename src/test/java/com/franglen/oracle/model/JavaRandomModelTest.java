@@ -0,0 +1,111 @@
+package com.franglen.oracle.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * @author matthew
+ *
+ */
+public class JavaRandomModelTest {
+
+	private static final long SEED = 1234567890123L;
+
+	private static final JavaRandomModel MODEL = JavaRandomModel.INSTANCE;
+
+	@Test
+	public void testMultiplierInverse() {
+		assertEquals(1, (JavaRandomModel.MULTIPLIER * JavaRandomModel.MULTIPLIER_INVERSE) & JavaRandomModel.MASK);
+	}
+
+	@Test
+	public void testPrevious() {
+		long state = MODEL.toState(SEED);
+
+		assertEquals(state, JavaRandomModel.previous(JavaRandomModel.next(state)));
+	}
+
+	@Test
+	public void testSeedRoundTrip() {
+		long state = MODEL.toState(SEED);
+
+		assertEquals(state, MODEL.toState(MODEL.toSeed(state)));
+	}
+
+	@Test
+	public void testMatchesRandom() {
+		Random expected = new Random(SEED);
+		Random actual = MODEL.random(MODEL.toState(SEED));
+
+		for (int i = 0; i < 10; i++) {
+			assertEquals(expected.nextInt(), actual.nextInt());
+			assertEquals(expected.nextLong(), actual.nextLong());
+			assertEquals(expected.nextInt(i + 1), actual.nextInt(i + 1));
+			assertEquals(expected.nextDouble(), actual.nextDouble(), 0);
+			assertEquals(expected.nextFloat(), actual.nextFloat(), 0);
+			assertEquals(expected.nextBoolean(), actual.nextBoolean());
+			assertEquals(expected.nextGaussian(), actual.nextGaussian(), 0);
+		}
+	}
+
+	@Test
+	public void testNextIntsMatch() {
+		int[] bounds = { 52, 64, (1 << 30) + 1, (1 << 30) + 1, (1 << 30) + 1, 3 };
+		int[] draws = new int[bounds.length];
+		Random expected = new Random(SEED);
+		for (int i = 0; i < bounds.length; i++) {
+			draws[i] = expected.nextInt(bounds[i]);
+		}
+		ModelRandom actual = MODEL.random(MODEL.toState(SEED));
+
+		assertTrue(actual.nextIntsMatch(bounds, draws));
+		assertEquals(expected.nextLong(), actual.nextLong());
+	}
+
+	@Test
+	public void testNextIntsMismatch() {
+		int[] bounds = { 52, 51 };
+		Random expected = new Random(SEED);
+		int[] draws = { expected.nextInt(52), (expected.nextInt(51) + 1) % 51 };
+
+		assertFalse(MODEL.random(MODEL.toState(SEED)).nextIntsMatch(bounds, draws));
+	}
+
+	@Test
+	public void testStatesBeforeLong() {
+		long state = MODEL.toState(SEED);
+		long value = new Random(SEED).nextLong();
+
+		assertTrue(MODEL.statesBeforeLong(value).anyMatch((long candidate) -> candidate == state));
+	}
+
+	@Test
+	public void testStatesBeforeDouble() {
+		long state = MODEL.toState(SEED);
+		double value = new Random(SEED).nextDouble();
+
+		assertTrue(MODEL.statesBeforeDouble(value).anyMatch((long candidate) -> candidate == state));
+	}
+
+	@Test
+	public void testReset() {
+		long state = MODEL.toState(SEED);
+		ModelRandom random = MODEL.random(0);
+
+		random.nextGaussian();
+		random.reset(state);
+
+		assertEquals(state, random.getState());
+		assertEquals(new Random(SEED).nextGaussian(), random.nextGaussian(), 0);
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void testSetSeed() {
+		MODEL.random(0).setSeed(SEED);
+	}
+}
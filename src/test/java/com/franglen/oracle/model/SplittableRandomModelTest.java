@@ -0,0 +1,76 @@
+package com.franglen.oracle.model;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+import java.util.SplittableRandom;
+
+import org.junit.Test;
+
+/**
+ * @author matthew
+ *
+ */
+public class SplittableRandomModelTest {
+
+	private static final long SEED = 1234567890123L;
+
+	private static final SplittableRandomModel MODEL = SplittableRandomModel.INSTANCE;
+
+	@Test
+	public void testMatchesSplittableRandom() {
+		SplittableRandom expected = new SplittableRandom(SEED);
+		Random actual = MODEL.random(MODEL.toState(SEED));
+
+		for (int i = 0; i < 10; i++) {
+			assertEquals(expected.nextInt(), actual.nextInt());
+			assertEquals(expected.nextLong(), actual.nextLong());
+			assertEquals(expected.nextInt(i + 1), actual.nextInt(i + 1));
+			assertEquals(expected.nextInt(1 << i), actual.nextInt(1 << i));
+			assertEquals(expected.nextDouble(), actual.nextDouble(), 0);
+			assertEquals(expected.nextBoolean(), actual.nextBoolean());
+		}
+	}
+
+	@Test
+	public void testStatesBeforeLong() {
+		long value = new SplittableRandom(SEED).nextLong();
+
+		assertArrayEquals(new long[] { SEED }, MODEL.statesBeforeLong(value).toArray());
+	}
+
+	@Test
+	public void testFromLongs() {
+		SplittableRandom generator = new SplittableRandom().split();
+		long first = generator.nextLong(), second = generator.nextLong();
+		SplittableRandomModel model = SplittableRandomModel.fromLongs(first, second);
+		long state = model.statesBeforeLong(first).findFirst().getAsLong();
+		Random actual = model.random(state);
+
+		assertEquals(first, actual.nextLong());
+		assertEquals(second, actual.nextLong());
+		assertEquals(generator.nextLong(), actual.nextLong());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testEvenGamma() {
+		new SplittableRandomModel(2);
+	}
+
+	@Test
+	public void testBytes() {
+		for (int length = 0; length < 20; length++) {
+			byte[] expected = new byte[length], actual = new byte[length];
+			new SplittableRandom(SEED).nextBytes(expected);
+			MODEL.random(MODEL.toState(SEED)).nextBytes(actual);
+
+			assertArrayEquals(expected, actual);
+		}
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void testGaussian() {
+		MODEL.random(SEED).nextGaussian();
+	}
+}
@@ -0,0 +1,82 @@
+package com.franglen.oracle.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.junit.Test;
+
+import com.franglen.oracle.model.ThreadLocalRandomModel.Algorithm;
+
+/**
+ * @author matthew
+ *
+ */
+public class ThreadLocalRandomModelTest {
+
+	private static final long STATE = 1234567890123L;
+	private static final double DOUBLE_UNIT = 0x1.0p-53;
+
+	/**
+	 * The model follows the running Java version by default, so this checks
+	 * whichever algorithm is running.
+	 */
+	@Test
+	public void testRecoversThreadLocalRandom() {
+		ThreadLocalRandom expected = ThreadLocalRandom.current();
+		ThreadLocalRandomModel model = new ThreadLocalRandomModel(Thread.currentThread().getId());
+		long value = expected.nextLong();
+		Random actual = model.random(model.statesBeforeLong(value).findFirst().getAsLong());
+
+		assertEquals(value, actual.nextLong());
+		for (int i = 0; i < 10; i++) {
+			assertEquals(expected.nextInt(), actual.nextInt());
+			assertEquals(expected.nextLong(), actual.nextLong());
+			assertEquals(expected.nextInt(i + 1), actual.nextInt(i + 1));
+			assertEquals(expected.nextDouble(), actual.nextDouble(), 0);
+			assertEquals(expected.nextFloat(), actual.nextFloat(), 0);
+			assertEquals(expected.nextBoolean(), actual.nextBoolean());
+			assertEquals(expected.nextGaussian(), actual.nextGaussian(), 0);
+		}
+	}
+
+	@Test
+	public void testCurrentAlgorithm() {
+		String version = System.getProperty("java.specification.version");
+		Algorithm expected = version.startsWith("1.") || Integer.parseInt(version) < 17 ? Algorithm.JAVA_8 : Algorithm.JAVA_17;
+
+		assertEquals(expected, new ThreadLocalRandomModel(1).getAlgorithm());
+	}
+
+	@Test
+	public void testJava8GammaIgnoresThread() {
+		assertEquals(new ThreadLocalRandomModel(1, Algorithm.JAVA_8), new ThreadLocalRandomModel(2, Algorithm.JAVA_8));
+		assertFalse(new ThreadLocalRandomModel(1, Algorithm.JAVA_17).equals(new ThreadLocalRandomModel(2, Algorithm.JAVA_17)));
+	}
+
+	/**
+	 * Java 8 mixes each double from a whole long rather than two calls to
+	 * next(bits).
+	 */
+	@Test
+	public void testJava8Double() {
+		long state = STATE + Mixers.GOLDEN_GAMMA;
+		Random random = new ThreadLocalRandomModel(1, Algorithm.JAVA_8).random(STATE);
+
+		assertEquals((Mixers.murmur64(state) >>> 11) * DOUBLE_UNIT, random.nextDouble(), 0);
+	}
+
+	@Test
+	public void testJava8RecoversLong() {
+		ThreadLocalRandomModel model = new ThreadLocalRandomModel(1, Algorithm.JAVA_8);
+		Random expected = model.random(STATE);
+		long value = expected.nextLong();
+		Random actual = model.random(model.statesBeforeLong(value).findFirst().getAsLong());
+
+		assertEquals(value, actual.nextLong());
+		assertEquals(expected.nextInt(7), actual.nextInt(7));
+		assertEquals(expected.nextGaussian(), actual.nextGaussian(), 0);
+	}
+}
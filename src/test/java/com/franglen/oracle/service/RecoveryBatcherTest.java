@@ -0,0 +1,122 @@
+package com.franglen.oracle.service;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import org.junit.Test;
+
+import com.franglen.oracle.RecoveryJob;
+import com.franglen.oracle.filter.ApproximateIntFilter;
+import com.franglen.oracle.filter.Filter;
+import com.franglen.oracle.filter.IntFilter;
+
+/**
+ * @author matthew
+ *
+ */
+public class RecoveryBatcherTest {
+
+	private static final long WINDOW_MILLIS = 200;
+
+	@Test
+	public void testBatchesSameRange() throws Exception {
+		int count = 10;
+		List<CompletableFuture<RecoveryJob>> results = new ArrayList<>();
+
+		try (RecoveryBatcher batcher = new RecoveryBatcher(WINDOW_MILLIS, 2)) {
+			for (int i = 0; i < count; i++) {
+				results.add(batcher.submit(request(0, 1000, i * 10)));
+			}
+
+			for (int i = 0; i < count; i++) {
+				assertArrayEquals(new long[] { i * 10 }, results.get(i).get().seeds().toArray());
+			}
+			assertEquals(count, batcher.getRequestCount());
+			assertEquals(1, batcher.getScanCount());
+		}
+	}
+
+	@Test
+	public void testSeparatesRanges() throws Exception {
+		try (RecoveryBatcher batcher = new RecoveryBatcher(WINDOW_MILLIS, 2)) {
+			CompletableFuture<RecoveryJob> first = batcher.submit(request(0, 1000, 10));
+			CompletableFuture<RecoveryJob> second = batcher.submit(request(1000, 1000, 1010));
+
+			assertArrayEquals(new long[] { 10 }, first.get().seeds().toArray());
+			assertArrayEquals(new long[] { 1010 }, second.get().seeds().toArray());
+			assertEquals(2, batcher.getScanCount());
+		}
+	}
+
+	@Test
+	public void testWindowCloses() throws Exception {
+		try (RecoveryBatcher batcher = new RecoveryBatcher(0, 2)) {
+			batcher.submit(request(0, 1000, 10)).get();
+			batcher.submit(request(0, 1000, 20)).get();
+
+			assertEquals(2, batcher.getScanCount());
+		}
+	}
+
+	/**
+	 * The range is far larger than the limit, but the request stops collecting
+	 * once it passes the limit.
+	 */
+	@Test
+	public void testTooManySurvivors() throws Exception {
+		try (RecoveryBatcher batcher = new RecoveryBatcher(WINDOW_MILLIS, 2, 10)) {
+			Filter everything = new ApproximateIntFilter(0, 1L << 32);
+			CompletableFuture<RecoveryJob> unfiltered = batcher.submit(new RecoveryRequest("java", 0, 2_000_000, Collections.singletonList(everything)));
+			CompletableFuture<RecoveryJob> filtered = batcher.submit(request(0, 2_000_000, 10));
+
+			assertArrayEquals(new long[] { 10 }, filtered.get().seeds().toArray());
+			assertTrue(failure(unfiltered) instanceof IllegalStateException);
+		}
+	}
+
+	/**
+	 * The filter passes the check when it is added and then throws part way
+	 * through the scan, failing only its own request.
+	 */
+	@Test
+	public void testFailedScan() throws Exception {
+		int failingValue = new Random(500).nextInt();
+		Filter failing = (Random random) -> {
+			if (random.nextInt() == failingValue) {
+				throw new IllegalStateException("scan failed");
+			}
+			return true;
+		};
+
+		try (RecoveryBatcher batcher = new RecoveryBatcher(WINDOW_MILLIS, 2)) {
+			CompletableFuture<RecoveryJob> first = batcher.submit(new RecoveryRequest("java", 0, 1000, Collections.singletonList(failing)));
+			CompletableFuture<RecoveryJob> second = batcher.submit(request(0, 1000, 10));
+
+			assertTrue(failure(first) instanceof IllegalStateException);
+			assertArrayEquals(new long[] { 10 }, second.get().seeds().toArray());
+		}
+	}
+
+	private static Throwable failure(CompletableFuture<RecoveryJob> result) throws InterruptedException {
+		try {
+			result.get();
+			throw new AssertionError("Request should have failed");
+		}
+		catch (ExecutionException e) {
+			return e.getCause();
+		}
+	}
+
+	private static RecoveryRequest request(long start, long size, long seed) {
+		List<Filter> filters = Collections.singletonList(new IntFilter(new Random(seed).nextInt()));
+		return new RecoveryRequest("java", start, size, filters);
+	}
+}
@@ -0,0 +1,102 @@
+package com.franglen.oracle.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+
+import org.junit.Test;
+
+import com.franglen.oracle.filter.ApproximateDoubleFilter;
+import com.franglen.oracle.filter.IntFilter;
+import com.franglen.oracle.model.SplittableRandomModel;
+import com.franglen.oracle.model.ThreadLocalRandomModel;
+
+/**
+ * @author matthew
+ *
+ */
+public class RecoveryRequestTest {
+
+	@Test
+	public void testRead() throws IOException {
+		RecoveryRequest request = read("RANGE 10 20\nINT 5\nDOUBLE 0.5 0.01\nEND\n");
+
+		assertEquals(10, request.getStart());
+		assertEquals(20, request.getSize());
+		assertEquals(2, request.getFilters().size());
+		assertTrue(request.getFilters().get(0) instanceof IntFilter);
+		assertTrue(request.getFilters().get(1) instanceof ApproximateDoubleFilter);
+	}
+
+	@Test
+	public void testModel() throws IOException {
+		RecoveryRequest request = read("MODEL Splittable\nRANGE 0 1\nLONG 5\nEND\n");
+
+		assertTrue(request.getModel() instanceof SplittableRandomModel);
+	}
+
+	@Test
+	public void testThreadLocalVersion() throws IOException {
+		RecoveryRequest request = read("MODEL threadlocal 1 java8\nRANGE 0 1\nINT 5\nEND\n");
+
+		assertEquals(new ThreadLocalRandomModel(1, ThreadLocalRandomModel.Algorithm.JAVA_8), request.getModel());
+	}
+
+	@Test
+	public void testBatchKey() throws IOException {
+		RecoveryRequest first = read("RANGE 0 100\nINT 1\nEND\n");
+		RecoveryRequest second = read("range 0 100\nint 2\nend\n");
+		RecoveryRequest third = read("MODEL splittable\nRANGE 0 100\nINT 3\nEND\n");
+
+		assertEquals(first.getBatchKey(), second.getBatchKey());
+		assertTrue(!first.getBatchKey().equals(third.getBatchKey()));
+	}
+
+	@Test
+	public void testEmpty() throws IOException {
+		assertNull(read("\n\n"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testMissingRange() throws IOException {
+		read("INT 5\nEND\n");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testMissingEnd() throws IOException {
+		read("RANGE 0 1\nINT 5\n");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNoObservations() throws IOException {
+		read("RANGE 0 1\nEND\n");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testUnknownModel() throws IOException {
+		read("MODEL mersenne\nRANGE 0 1\nEND\n");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testMalformedValue() throws IOException {
+		read("RANGE 0 1\nINT five\nEND\n");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testRangeTooLarge() throws IOException {
+		RecoveryRequest.read(new BufferedReader(new StringReader("RANGE 0 101\nINT 5\nEND\n")), 100);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testDefaultMaximumSize() throws IOException {
+		read("RANGE 0 " + (RecoveryRequest.DEFAULT_MAXIMUM_SIZE + 1) + "\nINT 5\nEND\n");
+	}
+
+	private static RecoveryRequest read(String request) throws IOException {
+		return RecoveryRequest.read(new BufferedReader(new StringReader(request)));
+	}
+}
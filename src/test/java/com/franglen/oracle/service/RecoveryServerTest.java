@@ -0,0 +1,139 @@
+package com.franglen.oracle.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @author matthew
+ *
+ */
+public class RecoveryServerTest {
+
+	private static final long WINDOW_MILLIS = 20;
+	private static final long RANGE_SIZE = 10_000;
+	private static final long MAXIMUM_RANGE_SIZE = 100_000;
+	private static final long MAXIMUM_SURVIVORS = 100;
+
+	private RecoveryServer server;
+
+	@Before
+	public void setUp() throws IOException {
+		server = new RecoveryServer(0, new RecoveryBatcher(WINDOW_MILLIS, 2, MAXIMUM_SURVIVORS), MAXIMUM_RANGE_SIZE);
+		server.start();
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		server.close();
+	}
+
+	@Test
+	public void testRecover() throws IOException {
+		List<String> response = send(request(0, 1234));
+
+		assertEquals("COUNT 1", response.get(0));
+		assertEquals("SEED 1234", response.get(1));
+		assertEquals("DONE", response.get(2));
+	}
+
+	@Test
+	public void testMultipleRequests() throws IOException {
+		List<String> response = send(request(0, 1234) + request(RANGE_SIZE, RANGE_SIZE + 1));
+
+		assertEquals("SEED 1234", response.get(1));
+		assertEquals("SEED " + (RANGE_SIZE + 1), response.get(4));
+	}
+
+	@Test
+	public void testError() throws IOException {
+		List<String> response = send("RANGE 0\nEND\n");
+
+		assertEquals(1, response.size());
+		assertTrue(response.get(0).startsWith("ERROR"));
+	}
+
+	@Test
+	public void testRangeTooLarge() throws IOException {
+		List<String> response = send("RANGE 0 " + (MAXIMUM_RANGE_SIZE + 1) + "\nINT 5\nEND\n");
+
+		assertEquals(1, response.size());
+		assertTrue(response.get(0).startsWith("ERROR"));
+	}
+
+	/**
+	 * A failed request is answered with an error and the connection carries on
+	 * with the next request.
+	 */
+	@Test
+	public void testTooManySurvivors() throws IOException {
+		List<String> response = send("RANGE 0 " + RANGE_SIZE + "\nINT 0 " + (1L << 32) + "\nEND\n" + request(0, 1234));
+
+		assertTrue(response.get(0).startsWith("ERROR"));
+		assertEquals("COUNT 1", response.get(1));
+		assertEquals("SEED 1234", response.get(2));
+	}
+
+	@Test
+	public void testConcurrentRequests() throws Exception {
+		int count = 200, ranges = 4;
+		ExecutorService clients = Executors.newFixedThreadPool(count);
+		List<Future<List<String>>> responses = new ArrayList<>();
+
+		try {
+			for (int i = 0; i < count; i++) {
+				long seed = (i % ranges) * RANGE_SIZE + i;
+				responses.add(clients.submit(() -> send(request((seed / RANGE_SIZE) * RANGE_SIZE, seed))));
+			}
+
+			for (int i = 0; i < count; i++) {
+				long seed = (i % ranges) * RANGE_SIZE + i;
+				assertEquals("SEED " + seed, responses.get(i).get().get(1));
+			}
+		}
+		finally {
+			clients.shutdown();
+		}
+	}
+
+	private static String request(long start, long seed) {
+		Random random = new Random(seed);
+		return "RANGE " + start + " " + RANGE_SIZE + "\nINT " + random.nextInt() + "\nINT " + random.nextInt() + "\nEND\n";
+	}
+
+	private List<String> send(String request) throws IOException {
+		List<String> lines = new ArrayList<>();
+
+		try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort())) {
+			Writer writer = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8);
+			writer.write(request);
+			writer.flush();
+			socket.shutdownOutput();
+
+			BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+			for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+				lines.add(line);
+			}
+		}
+
+		return lines;
+	}
+}
@@ -0,0 +1,87 @@
+package com.franglen.oracle.snapshot;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+import java.util.stream.LongStream;
+
+import org.junit.Test;
+
+/**
+ * @author matthew
+ *
+ */
+public class SnapshotReaderTest {
+
+	private static final long SEED = 1234;
+
+	@Test
+	public void testRoundTrip() throws IOException {
+		long[] states = new Random(SEED).longs(10_000, 0, 1L << 48).sorted().distinct().toArray();
+
+		try (SnapshotReader reader = new SnapshotReader(new ByteArrayInputStream(write(states)))) {
+			assertArrayEquals(states, reader.states().toArray());
+		}
+	}
+
+	@Test
+	public void testRoundTripFullRange() throws IOException {
+		long[] states = { Long.MIN_VALUE, -1, 0, 1, Long.MAX_VALUE };
+
+		try (SnapshotReader reader = new SnapshotReader(new ByteArrayInputStream(write(states)))) {
+			assertArrayEquals(states, reader.states().toArray());
+		}
+	}
+
+	@Test
+	public void testEmpty() throws IOException {
+		try (SnapshotReader reader = new SnapshotReader(new ByteArrayInputStream(write(new long[0])))) {
+			assertEquals(0, reader.states().count());
+		}
+	}
+
+	@Test
+	public void testIntersect() throws IOException {
+		long[] states = LongStream.range(0, 20_000).map((long i) -> i * 3).toArray();
+		long[] scan = { -5, 0, 1, 3, 7, 9, 30_000, 30_001, 59_997, 59_999, 100_000 };
+
+		try (SnapshotReader reader = new SnapshotReader(new ByteArrayInputStream(write(states)))) {
+			assertArrayEquals(new long[] { 0, 3, 9, 30_000, 59_997 }, reader.intersect(scan));
+		}
+	}
+
+	@Test
+	public void testIntersectSkipsBlocks() throws IOException {
+		long[] states = LongStream.range(0, 20_000).toArray();
+
+		try (SnapshotReader reader = new SnapshotReader(new ByteArrayInputStream(write(states)))) {
+			assertArrayEquals(new long[] { 19_999 }, reader.intersect(new long[] { 19_999, 20_000 }));
+		}
+	}
+
+	@Test(expected = IOException.class)
+	public void testNotSnapshot() throws IOException {
+		new SnapshotReader(new ByteArrayInputStream(new byte[8]));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testReadTwice() throws IOException {
+		try (SnapshotReader reader = new SnapshotReader(new ByteArrayInputStream(write(new long[] { 1 })))) {
+			reader.states().count();
+			reader.states();
+		}
+	}
+
+	private static byte[] write(long[] states) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+		try (SnapshotWriter writer = new SnapshotWriter(bytes)) {
+			writer.addAll(LongStream.of(states));
+		}
+		return bytes.toByteArray();
+	}
+}
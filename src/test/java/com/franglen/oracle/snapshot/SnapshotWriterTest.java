@@ -0,0 +1,43 @@
+package com.franglen.oracle.snapshot;
+
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.stream.LongStream;
+
+import org.junit.Test;
+
+/**
+ * @author matthew
+ *
+ */
+public class SnapshotWriterTest {
+
+	@Test
+	public void testCompressesDenseStates() throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+		try (SnapshotWriter writer = new SnapshotWriter(bytes)) {
+			writer.addAll(LongStream.range(0, 100_000).map((long i) -> i * 100));
+		}
+
+		assertTrue(bytes.size() < 100_000 * Long.BYTES / 4);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testDescending() throws IOException {
+		try (SnapshotWriter writer = new SnapshotWriter(new ByteArrayOutputStream())) {
+			writer.add(2);
+			writer.add(1);
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testDuplicate() throws IOException {
+		try (SnapshotWriter writer = new SnapshotWriter(new ByteArrayOutputStream())) {
+			writer.add(1);
+			writer.add(1);
+		}
+	}
+}